@@ -0,0 +1,70 @@
+package ru.company.project.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.company.project.data.CardDataGenerator;
+import ru.company.project.data.DataHelper;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+import static ru.company.project.data.CardTestData.*;
+
+/**
+ * Пропускная способность генерации данных формы карты ({@link DataHelper}, {@link CardDataGenerator}).
+ * Несколько потоков — как при параллельном прогоне. {@code monthWithFormatterPerCall} — прежняя реализация
+ * getMonth для сравнения.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class DataGenerationBenchmark {
+
+    @Benchmark
+    public String month() {
+        return DataHelper.getMonth(CURRENT_MONTH + 2);
+    }
+
+    @Benchmark
+    public String year() {
+        return DataHelper.getYear(CURRENT_YEAR + 3);
+    }
+
+    @Benchmark
+    public String monthWithFormatterPerCall() {
+        return LocalDate.now().plusMonths(2).format(DateTimeFormatter.ofPattern("MM"));
+    }
+
+    @Benchmark
+    public String latinHolder() {
+        return DataHelper.getHolderNameFormat(VALID_HOLDER);
+    }
+
+    @Benchmark
+    public String cyrillicHolder() {
+        return DataHelper.getHolderNameFormat(HOLDER_CYRILLIC);
+    }
+
+    @Benchmark
+    public String cvc() {
+        return DataHelper.getCvc(VALID_CVC);
+    }
+
+    @Benchmark
+    public String luhnCardNumber() {
+        return CardDataGenerator.current().cardNumber();
+    }
+}
@@ -0,0 +1,75 @@
+package ru.company.project.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.company.project.data.DBHelper;
+import ru.company.project.data.FixtureSeeder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Задержка проверок в БД, которые выполняет каждый тест. Нужна локальная база с запущенным
+ * приложением или хотя бы со схемой: {@code ./gradlew jmh -Ddb.url=jdbc:mysql://localhost:3306/app}.
+ * {@code connectPerCall} — прежнее открытие соединения на каждый запрос, для сравнения с пулом.
+ * {@code -Dseed.rows=10000000} перед замером наполняет таблицы ({@link FixtureSeeder}), чтобы измерять
+ * запросы на промышленных объёмах.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DbVerificationBenchmark {
+    private final String url = System.getProperty("db.url");
+    private final String user = System.getProperty("db.user", "app");
+    private final String password = System.getProperty("db.pass", "pass");
+
+    @Setup(Level.Trial)
+    public void checkDatabase() throws SQLException {
+        if (url == null) {
+            throw new IllegalStateException("Не задан db.url: бенчмарку нужна локальная БД");
+        }
+        DBHelper.prepareDatabase();
+        long rows = Long.getLong("seed.rows", 0);
+        if (rows > 0) {
+            FixtureSeeder.fromSystemProperties().seed(rows);
+        }
+    }
+
+    @Benchmark
+    public long orderCount() throws SQLException {
+        return DBHelper.getOrderCount();
+    }
+
+    @Benchmark
+    public String paymentStatus() throws SQLException {
+        return DBHelper.getPaymentStatus();
+    }
+
+    @Benchmark
+    public boolean pooledConnection() throws SQLException {
+        try (Connection connection = DBHelper.getConnection()) {
+            return connection.getAutoCommit();
+        }
+    }
+
+    @Benchmark
+    public boolean connectPerCall() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, user, password)) {
+            return connection.getAutoCommit();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package ru.company.project.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.company.project.gate.EmbeddedGateSimulator;
+import ru.company.project.gate.JsonCardStatusStore;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Задержка запроса к симулятору банка. По умолчанию — встроенный симулятор на свободном порту,
+ * с {@code -Dgate.url=http://localhost:9999} — внешний (контейнер node-app).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GateSimulatorBenchmark {
+    private static final String APPROVED_CARD_API = "{\"number\":\"4444 4444 4444 4441\"}";
+    private static final String DECLINED_CARD_API = "{\"number\":\"4444 4444 4444 4442\"}";
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private EmbeddedGateSimulator simulator;
+    private HttpRequest payment;
+    private HttpRequest credit;
+
+    @Setup(Level.Trial)
+    public void startSimulator() throws IOException {
+        String baseUrl = System.getProperty("gate.url");
+        if (baseUrl == null) {
+            simulator = new EmbeddedGateSimulator(0, new JsonCardStatusStore(
+                    new File(System.getProperty("gate.data", "gate-simulator/data.json"))));
+            baseUrl = simulator.getBaseUrl();
+        }
+        payment = post(baseUrl + "/payment", APPROVED_CARD_API);
+        credit = post(baseUrl + "/credit", DECLINED_CARD_API);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopSimulator() {
+        if (simulator != null) {
+            simulator.close();
+        }
+    }
+
+    @Benchmark
+    public String approvedPayment() throws IOException, InterruptedException {
+        return client.send(payment, HttpResponse.BodyHandlers.ofString()).body();
+    }
+
+    @Benchmark
+    public String declinedCredit() throws IOException, InterruptedException {
+        return client.send(credit, HttpResponse.BodyHandlers.ofString()).body();
+    }
+
+    private static HttpRequest post(String url, String body) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+}
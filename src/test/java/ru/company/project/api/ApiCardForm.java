@@ -0,0 +1,61 @@
+package ru.company.project.api;
+
+import io.qameta.allure.Step;
+import ru.company.project.data.DataHelper;
+import ru.company.project.data.DataScope;
+import ru.company.project.pages.CardForm;
+
+import java.net.http.HttpResponse;
+
+
+/**
+ * Форма карты без браузера: те же данные, что вводятся в {@code CardPage}, отправляются
+ * напрямую в REST API приложения. Подходит для сценариев, результат которых проверяется в БД.
+ */
+public class ApiCardForm implements CardForm {
+    private final PurchaseMode mode;
+    private String number;
+    private String month;
+    private String year;
+    private String holder;
+    private String cvc;
+    private HttpResponse<String> lastResponse;
+
+    public ApiCardForm(PurchaseMode mode) {
+        this.mode = mode;
+    }
+
+    @Override
+    public void fillingCardForm(String card, Object month, Object year, String holder, String cvc) {
+        this.number = card;
+        this.month = DataHelper.getMonth(month);
+        this.year = DataHelper.getYear(year);
+        this.holder = DataHelper.getHolderNameFormat(holder);
+        this.cvc = DataHelper.getCvc(cvc);
+    }
+
+    @Override
+    @Step("Отправить форму через API")
+    public void submit() {
+        DataScope.openSubmitWindow(number);
+        try {
+            lastResponse = ShopApiClient.purchase(mode, number, month, year, holder, cvc);
+        } finally {
+            DataScope.closeSubmitWindow();
+        }
+    }
+
+    /**
+     * HTTP-код ответа на последнюю отправку
+     */
+    public int getLastStatusCode() {
+        return lastResponse.statusCode();
+    }
+
+    /**
+     * Тело ответа на последнюю отправку
+     */
+    public String getLastBody() {
+        return lastResponse.body();
+    }
+}
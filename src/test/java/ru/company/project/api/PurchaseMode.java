@@ -0,0 +1,30 @@
+package ru.company.project.api;
+
+/**
+ * Способ покупки тура и соответствующий эндпоинт REST API приложения.
+ */
+public enum PurchaseMode {
+    /** Оплата по дебетовой карте */
+    PAYMENT("/api/v1/pay", "Оплата"),
+    /** Кредит по данным карты */
+    CREDIT("/api/v1/credit", "Кредит");
+
+    private final String path;
+    private final String title;
+
+    PurchaseMode(String path, String title) {
+        this.path = path;
+        this.title = title;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Название способа покупки для отчёта
+     */
+    public String getTitle() {
+        return title;
+    }
+}
@@ -0,0 +1,52 @@
+package ru.company.project.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.SneakyThrows;
+import ru.company.project.base.ShopApp;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Клиент REST API приложения. Один {@link HttpClient} на JVM: соединения с приложением
+ * переиспользуются между запросами и потоками.
+ */
+public class ShopApiClient {
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    /**
+     * Формирует запрос покупки с данными карты
+     */
+    public static HttpRequest purchaseRequest(PurchaseMode mode, String number, String month, String year,
+                                              String holder, String cvc) {
+        ObjectNode body = mapper.createObjectNode()
+                .put("number", number)
+                .put("month", month)
+                .put("year", year)
+                .put("holder", holder)
+                .put("cvc", cvc);
+        return HttpRequest.newBuilder(URI.create(ShopApp.getBaseUrl()).resolve(mode.getPath()))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+    }
+
+    /**
+     * Отправляет покупку и возвращает ответ приложения
+     */
+    @SneakyThrows
+    public static HttpResponse<String> purchase(PurchaseMode mode, String number, String month, String year,
+                                                String holder, String cvc) {
+        return client.send(purchaseRequest(mode, number, month, year, holder, cvc),
+                HttpResponse.BodyHandlers.ofString());
+    }
+}
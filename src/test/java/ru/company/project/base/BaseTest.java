@@ -1,6 +1,5 @@
 package ru.company.project.base;
 
-import com.codeborne.selenide.Configuration;
 import com.codeborne.selenide.logevents.SelenideLogger;
 import io.qameta.allure.selenide.AllureSelenide;
 import org.junit.jupiter.api.AfterAll;
@@ -8,10 +7,11 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import ru.company.project.data.DBHelper;
+import ru.company.project.data.DataScope;
+import ru.company.project.gate.EmbeddedGateSimulator;
 import ru.company.project.pages.CardPage;
 import ru.company.project.pages.MainPage;
-
-import static com.codeborne.selenide.Selenide.open;
+import ru.company.project.proxy.FaultProxies;
 
 
 public abstract class BaseTest {
@@ -19,10 +19,9 @@ public abstract class BaseTest {
 
     @BeforeAll
     static void setUpAll() {
-        SelenideLogger.addListener("allure", new AllureSelenide());
-        Configuration.holdBrowserOpen = false;
-        Configuration.browser = System.getProperty("browser", "chrome");
-        Configuration.headless = Boolean.parseBoolean(System.getProperty("selenide.headless", "false"));
+        BrowserPool.configure();
+        EmbeddedGateSimulator.ensureStarted();
+        DBHelper.prepareDatabase();
     }
 
     @AfterAll
@@ -32,7 +31,13 @@ public abstract class BaseTest {
 
     @BeforeEach
     void setUpTest() {
-        open("http://localhost:8080/");
+        // Слушатели SelenideLogger хранятся в разрезе потока, а при параллельном запуске
+        // тесты одного класса выполняются на разных воркерах
+        if (!SelenideLogger.hasListener("allure")) {
+            SelenideLogger.addListener("allure", new AllureSelenide());
+        }
+        DataScope.begin();
+        BrowserPool.open(ShopApp.getBaseUrl());
         MainPage mainPage = new MainPage();
         mainPage.verifyHeaderVisible();
         cardPage = initializeCardPage(mainPage);
@@ -40,6 +45,10 @@ public abstract class BaseTest {
 
     @AfterEach
     public void cleanBase() {
+        // Неисправности сети, внесённые тестом, не должны переходить к следующим тестам форка
+        if (FaultProxies.isEnabled()) {
+            FaultProxies.resetFaults();
+        }
         DBHelper.cleanDatabase();
     }
 
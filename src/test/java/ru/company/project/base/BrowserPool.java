@@ -0,0 +1,95 @@
+package ru.company.project.base;
+
+import com.codeborne.selenide.Configuration;
+import com.codeborne.selenide.Selenide;
+import com.codeborne.selenide.WebDriverRunner;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import ru.company.project.profiling.jfr.JfrEvents;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Пул браузеров, привязанных к рабочим потокам JUnit.
+ *
+ * <p>Selenide хранит WebDriver в разрезе потока, поэтому при параллельном запуске
+ * каждый воркер JUnit получает свой браузер. Число воркеров (и браузеров) задаётся
+ * свойством {@code test.workers}, по умолчанию — числу ядер.</p>
+ *
+ * <p>Браузер запускается один раз на воркер и переиспользуется между тестами:
+ * перед каждым тестом очищаются cookies и localStorage вместо перезапуска.
+ * Если сброс не удался, браузер закрывается и следующий {@code open()} поднимет новый.</p>
+ */
+public class BrowserPool {
+    private static final LongAdder launches = new LongAdder();
+    private static final LongAdder reuses = new LongAdder();
+    private static final LongAdder prewarms = new LongAdder();
+
+    /**
+     * Настраивает Selenide по системным свойствам browser и selenide.headless
+     */
+    public static void configure() {
+        Configuration.holdBrowserOpen = false;
+        Configuration.browser = System.getProperty("browser", "chrome");
+        Configuration.headless = Boolean.parseBoolean(System.getProperty("selenide.headless", "false"));
+        JfrEvents.installWebDriverListener();
+    }
+
+    /**
+     * Открывает страницу в браузере текущего воркера, запуская его только при первом обращении
+     * (или забирая заранее запущенный {@link BrowserPrewarm}).
+     *
+     * @param url адрес открываемой страницы
+     */
+    public static void open(String url) {
+        if (WebDriverRunner.hasWebDriverStarted() && reset()) {
+            reuses.increment();
+        } else {
+            WebDriver prewarmed = BrowserPrewarm.take();
+            if (prewarmed != null) {
+                WebDriverRunner.setWebDriver(prewarmed);
+                prewarms.increment();
+            } else {
+                launches.increment();
+            }
+        }
+        Selenide.open(url);
+    }
+
+    /**
+     * Количество запусков браузера за прогон
+     */
+    public static long getLaunchCount() {
+        return launches.sum();
+    }
+
+    /**
+     * Количество браузеров, полученных от {@link BrowserPrewarm}
+     */
+    public static long getPrewarmCount() {
+        return prewarms.sum();
+    }
+
+    /**
+     * Количество тестов, получивших уже запущенный браузер
+     */
+    public static long getReuseCount() {
+        return reuses.sum();
+    }
+
+    /**
+     * Сбрасывает состояние браузера после предыдущего теста.
+     *
+     * @return false, если браузер пришлось закрыть
+     */
+    private static boolean reset() {
+        try {
+            Selenide.clearBrowserCookies();
+            Selenide.clearBrowserLocalStorage();
+            return true;
+        } catch (WebDriverException e) {
+            Selenide.closeWebDriver();
+            return false;
+        }
+    }
+}
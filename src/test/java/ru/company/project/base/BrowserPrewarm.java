@@ -0,0 +1,78 @@
+package ru.company.project.base;
+
+import com.codeborne.selenide.WebDriverRunner;
+import org.junit.platform.launcher.LauncherSession;
+import org.junit.platform.launcher.LauncherSessionListener;
+import org.openqa.selenium.WebDriver;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Предварительный запуск браузеров в фоне сразу после старта JUnit — параллельно с обнаружением тестов,
+ * подготовкой БД, запуском приложения и симулятора в {@code @BeforeAll}.
+ *
+ * <p>Число браузеров задаётся свойством {@code browser.prewarm} (0 — выключено), тип — как обычно
+ * свойством {@code browser}. Готовый браузер забирает {@link BrowserPool#open(String)} при первом
+ * обращении воркера; если браузер ещё запускается, воркер дожидается его, а не запускает новый.</p>
+ *
+ * <p>Браузер создаётся средствами Selenide в фоновом потоке, поэтому Selenide считает этот поток его
+ * владельцем и закрывает браузер, когда поток завершается. Фоновые потоки остаются живыми до конца
+ * сессии JUnit. Подключается через META-INF/services/org.junit.platform.launcher.LauncherSessionListener.</p>
+ */
+public class BrowserPrewarm implements LauncherSessionListener {
+    private static final int count = Integer.getInteger("browser.prewarm", 0);
+    private static final BlockingQueue<CompletableFuture<WebDriver>> ready = new LinkedBlockingQueue<>();
+    private static final CountDownLatch sessionClosed = new CountDownLatch(1);
+
+    @Override
+    public void launcherSessionOpened(LauncherSession session) {
+        for (int i = 1; i <= count; i++) {
+            CompletableFuture<WebDriver> driver = new CompletableFuture<>();
+            ready.add(driver);
+            Thread thread = new Thread(() -> warm(driver), "browser-prewarm-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    @Override
+    public void launcherSessionClosed(LauncherSession session) {
+        sessionClosed.countDown();
+    }
+
+    /**
+     * Забирает заранее запущенный браузер, при необходимости дожидаясь окончания его запуска.
+     *
+     * @return браузер или null, если готовых браузеров нет или запуск не удался
+     */
+    static WebDriver take() {
+        CompletableFuture<WebDriver> driver = ready.poll();
+        if (driver == null) {
+            return null;
+        }
+        try {
+            return driver.join();
+        } catch (RuntimeException e) {
+            // Запуск не удался — воркер запустит браузер обычным образом и получит понятную ошибку
+            return null;
+        }
+    }
+
+    private static void warm(CompletableFuture<WebDriver> driver) {
+        try {
+            BrowserPool.configure();
+            driver.complete(WebDriverRunner.getWebDriver());
+        } catch (RuntimeException e) {
+            driver.completeExceptionally(e);
+            return;
+        }
+        try {
+            sessionClosed.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package ru.company.project.base;
+
+import lombok.SneakyThrows;
+import ru.company.project.data.WorkerDatabase;
+import ru.company.project.gate.EmbeddedGateSimulator;
+import ru.company.project.proxy.FaultProxies;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Тестируемое приложение (aqa-shop.jar).
+ *
+ * <p>В обычном режиме приложение запускается вручную ({@code ./gradlew runMySQL}) и доступно по
+ * {@code app.url} (по умолчанию http://localhost:8080/). В режиме отдельной базы на воркер
+ * ({@code db.perWorker=true}) каждый форк Gradle запускает собственный экземпляр приложения
+ * на свободном порту, подключённый к базе этого форка ({@link WorkerDatabase#getUrl()}).</p>
+ *
+ * <p>При {@code proxy.enabled=true} запущенный экземпляр обращается к банку и БД через прокси
+ * неисправностей ({@link FaultProxies}, звенья {@code gate} и {@code db}); для приложения,
+ * запущенного вручную, поднимаются звенья из {@code proxy.links}.</p>
+ */
+public class ShopApp {
+    private static final String jar = System.getProperty("app.jar", "artifacts/aqa-shop.jar");
+    private static final long startTimeoutSec = Long.getLong("app.startTimeoutSec", 90);
+    private static String baseUrl;
+
+    /**
+     * Возвращает адрес приложения, при необходимости запуская экземпляр для текущего форка
+     */
+    public static synchronized String getBaseUrl() {
+        if (baseUrl == null) {
+            if (FaultProxies.isEnabled() && !WorkerDatabase.isEnabled()) {
+                FaultProxies.startConfigured();
+            }
+            baseUrl = WorkerDatabase.isEnabled()
+                    ? launch(WorkerDatabase.getUrl())
+                    : System.getProperty("app.url", "http://localhost:8080/");
+        }
+        return baseUrl;
+    }
+
+    @SneakyThrows
+    private static String launch(String dbUrl) {
+        int port = freePort();
+        String javaBin = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        String gateUrl = EmbeddedGateSimulator.ensureStarted();
+        if (FaultProxies.isEnabled()) {
+            dbUrl = FaultProxies.route("db", dbUrl);
+            gateUrl = FaultProxies.route("gate", gateUrl);
+        }
+        Process process = new ProcessBuilder(javaBin,
+                "-Dspring.datasource.url=" + dbUrl,
+                "-Dspring.payment-gate.url=" + gateUrl + "/payment",
+                "-Dspring.credit-gate.url=" + gateUrl + "/credit",
+                "-Dserver.port=" + port,
+                "-jar", jar)
+                .redirectErrorStream(true)
+                .redirectOutput(new File("build", "aqa-shop-" + port + ".log"))
+                .start();
+        Runtime.getRuntime().addShutdownHook(new Thread(process::destroy, "aqa-shop-stop"));
+
+        String url = "http://localhost:" + port + "/";
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(startTimeoutSec);
+        while (!isUp(url)) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Приложение завершилось при запуске, код " + process.exitValue()
+                        + ", см. build/aqa-shop-" + port + ".log");
+            }
+            if (System.nanoTime() > deadline) {
+                process.destroy();
+                throw new IllegalStateException("Приложение не запустилось за " + startTimeoutSec + " с: " + url);
+            }
+            Thread.sleep(250);
+        }
+        return url;
+    }
+
+    private static boolean isUp(String url) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+            connection.setConnectTimeout(500);
+            connection.setReadTimeout(500);
+            try {
+                return connection.getResponseCode() == 200;
+            } finally {
+                connection.disconnect();
+            }
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package ru.company.project.data;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.SplittableRandom;
+
+/**
+ * Быстрый генератор синтетических данных карты: владельцы (латиница и кириллица), CVC,
+ * месяц/год относительно текущей даты и номера карт, проходящие проверку Луна.
+ *
+ * <p>Имена берутся из заранее заготовленных массивов, цифры — из таблицы строк "00".."99",
+ * поэтому вызов обходится одной-двумя аллокациями итоговой строки. Экземпляр не потокобезопасен;
+ * для общего использования каждый поток получает свой экземпляр через {@link #current()}.</p>
+ *
+ * <p>Последовательность детерминирована сидом прогона и ключом теста: перед каждым тестом
+ * {@link DataSeedExtension} переключает генератор потока на сид, производный от {@code data.seed} и
+ * уникального id теста в JUnit, поэтому данные теста не зависят от того, на каком воркере и в каком
+ * порядке он выполнялся. Потоки вне тестов (воркеры нагрузки, JMH) получают сид по имени потока.
+ * Без {@code -Ddata.seed} сид прогона случайный; расширение прикладывает его к каждому тесту в Allure,
+ * и {@code -Ddata.seed=<сид>} воспроизводит данные прогона.</p>
+ */
+public class CardDataGenerator {
+    private static final String[] FIRST_NAMES = {
+            "Ivan", "Petr", "Alexey", "Dmitry", "Sergey", "Andrey", "Nikolay", "Mikhail", "Pavel", "Oleg",
+            "Anna", "Maria", "Elena", "Olga", "Natalia", "Irina", "Tatiana", "Svetlana", "Daria", "Polina",
+            "John", "James", "Robert", "Michael", "William", "David", "Thomas", "Daniel", "Mark", "Steven",
+            "Mary", "Linda", "Susan", "Karen", "Laura", "Emily", "Sarah", "Jessica", "Helen", "Alice"
+    };
+    private static final String[] LAST_NAMES = {
+            "Ivanov", "Petrov", "Sidorov", "Smirnov", "Kuznetsov", "Popov", "Vasiliev", "Sokolov", "Mikhailov", "Novikov",
+            "Fedorov", "Morozov", "Volkov", "Alekseev", "Lebedev", "Semenov", "Egorov", "Pavlov", "Kozlov", "Stepanov",
+            "Smith", "Johnson", "Williams", "Brown", "Jones", "Miller", "Davis", "Wilson", "Anderson", "Taylor",
+            "Moore", "Jackson", "Martin", "Thompson", "White", "Harris", "Clark", "Lewis", "Walker", "Hall"
+    };
+    private static final String[] CYRILLIC_FIRST_NAMES = {
+            "Иван", "Пётр", "Алексей", "Дмитрий", "Сергей", "Андрей", "Николай", "Михаил", "Павел", "Олег",
+            "Анна", "Мария", "Елена", "Ольга", "Наталья", "Ирина", "Татьяна", "Светлана", "Дарья", "Полина"
+    };
+    private static final String[] CYRILLIC_LAST_NAMES = {
+            "Иванов", "Петров", "Сидоров", "Смирнов", "Кузнецов", "Попов", "Васильев", "Соколов", "Михайлов", "Новиков",
+            "Фёдоров", "Морозов", "Волков", "Алексеев", "Лебедев", "Семёнов", "Егоров", "Павлов", "Козлов", "Степанов"
+    };
+    private static final String[] TWO_DIGITS = new String[100];
+    private static final String CARD_PREFIX = "4444";
+
+    private static final long SEED = Long.getLong("data.seed", System.nanoTime());
+    private static final ThreadLocal<CardDataGenerator> current = ThreadLocal.withInitial(
+            () -> new CardDataGenerator(seedFor(Thread.currentThread().getName())));
+
+    private static volatile int epochMonth;
+    private static volatile long nextMonthStartMillis;
+
+    static {
+        for (int i = 0; i < TWO_DIGITS.length; i++) {
+            TWO_DIGITS[i] = i < 10 ? "0" + i : String.valueOf(i);
+        }
+    }
+
+    private final SplittableRandom random;
+
+    public CardDataGenerator(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Генератор текущего потока
+     */
+    public static CardDataGenerator current() {
+        return current.get();
+    }
+
+    /**
+     * Сид прогона: {@code data.seed} или случайный, если свойство не задано
+     */
+    public static long seed() {
+        return SEED;
+    }
+
+    /**
+     * Начинает для текущего потока последовательность теста
+     *
+     * @param key стабильный между прогонами ключ теста — уникальный id JUnit
+     */
+    public static void startTest(String key) {
+        current.set(new CardDataGenerator(seedFor(key)));
+    }
+
+    /**
+     * Сид, производный от сида прогона и ключа. String.hashCode для этого слишком короткий:
+     * у похожих id тестов 32-битные хеши часто совпадают, поэтому ключ сворачивается в 64 бита
+     */
+    static long seedFor(String key) {
+        long hash = 1125899906842597L;
+        for (int i = 0; i < key.length(); i++) {
+            hash = 31 * hash + key.charAt(i);
+        }
+        return SEED + 0x9E3779B97F4A7C15L * hash;
+    }
+
+    /**
+     * Месяц "MM" со смещением от текущего (1 — следующий, -1 — предыдущий)
+     */
+    public static String month(int offset) {
+        return TWO_DIGITS[Math.floorMod(currentEpochMonth() + offset, 12) + 1];
+    }
+
+    /**
+     * Год "yy" со смещением от текущего
+     */
+    public static String year(int offset) {
+        return TWO_DIGITS[Math.floorMod(Math.floorDiv(currentEpochMonth(), 12) + offset, 100)];
+    }
+
+    /**
+     * Имя латиницей
+     */
+    public String firstName() {
+        return pick(FIRST_NAMES);
+    }
+
+    /**
+     * Имя и фамилия латиницей
+     */
+    public String holder() {
+        return pick(FIRST_NAMES) + ' ' + pick(LAST_NAMES);
+    }
+
+    /**
+     * Имя и фамилия кириллицей
+     */
+    public String cyrillicHolder() {
+        return pick(CYRILLIC_FIRST_NAMES) + ' ' + pick(CYRILLIC_LAST_NAMES);
+    }
+
+    /**
+     * Заменяет каждый '#' в шаблоне случайной цифрой ("###" → "507")
+     */
+    public String cvc(String pattern) {
+        if (pattern.indexOf('#') < 0) {
+            return pattern;
+        }
+        char[] chars = pattern.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            if (chars[i] == '#') {
+                chars[i] = (char) ('0' + random.nextInt(10));
+            }
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Случайный 16-значный номер "4444 XXXX XXXX XXXX" с корректной контрольной цифрой Луна
+     */
+    public String cardNumber() {
+        return formatCardNumber(cardNumberAsLong());
+    }
+
+    /**
+     * Случайный номер карты с корректной контрольной цифрой Луна в виде числа — для индексов и выборок
+     */
+    public long cardNumberAsLong() {
+        long body = Long.parseLong(CARD_PREFIX) * 100_000_000_000L + random.nextLong(100_000_000_000L);
+        return body * 10 + luhnCheckDigit(body);
+    }
+
+    /**
+     * Контрольная цифра Луна для номера без неё
+     */
+    public static int luhnCheckDigit(long body) {
+        int sum = 0;
+        boolean doubled = true;
+        for (long rest = body; rest > 0; rest /= 10) {
+            int digit = (int) (rest % 10);
+            if (doubled) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubled = !doubled;
+        }
+        return (10 - sum % 10) % 10;
+    }
+
+    /**
+     * true, если номер (с пробелами или без) проходит проверку Луна
+     */
+    public static boolean isLuhnValid(String number) {
+        int sum = 0;
+        int digits = 0;
+        for (int i = number.length() - 1; i >= 0; i--) {
+            char c = number.charAt(i);
+            if (c == ' ') {
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                return false;
+            }
+            int digit = c - '0';
+            if (digits++ % 2 == 1) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+        }
+        return digits > 0 && sum % 10 == 0;
+    }
+
+    /**
+     * Форматирует 16-значный номер группами по 4 цифры
+     */
+    public static String formatCardNumber(long number) {
+        char[] chars = new char[19];
+        long rest = number;
+        for (int i = chars.length - 1; i >= 0; i--) {
+            if (i % 5 == 4) {
+                chars[i] = ' ';
+                continue;
+            }
+            chars[i] = (char) ('0' + rest % 10);
+            rest /= 10;
+        }
+        return new String(chars);
+    }
+
+    private String pick(String[] pool) {
+        return pool[random.nextInt(pool.length)];
+    }
+
+    /**
+     * Номер текущего месяца от начала эпохи (год * 12 + месяц - 1). Пересчитывается
+     * только при смене месяца, а не на каждый вызов
+     */
+    private static int currentEpochMonth() {
+        if (System.currentTimeMillis() >= nextMonthStartMillis) {
+            ZoneId zone = ZoneId.systemDefault();
+            LocalDate today = LocalDate.now(zone);
+            epochMonth = today.getYear() * 12 + today.getMonthValue() - 1;
+            nextMonthStartMillis = today.withDayOfMonth(1).plusMonths(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        }
+        return epochMonth;
+    }
+}
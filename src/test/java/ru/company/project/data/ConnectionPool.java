@@ -0,0 +1,323 @@
+package ru.company.project.data;
+
+import ru.company.project.profiling.jfr.JfrEvents;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ограниченный пул JDBC-соединений к тестовой базе данных.
+ *
+ * <p>Соединение, полученное через {@link #borrow()}, является обёрткой: вызов {@code close()}
+ * возвращает физическое соединение в пул, а не закрывает его. Поэтому код вида
+ * {@code try (var conn = pool.borrow()) {...}} работает без изменений.</p>
+ *
+ * <ul>
+ *   <li>Размер пула ограничен: при исчерпании поток ждёт освобождения не дольше {@code borrowTimeoutMs}</li>
+ *   <li>Перед выдачей соединение проверяется через {@link Connection#isValid(int)}</li>
+ *   <li>Соединения, простаивающие дольше {@code idleTimeoutMs}, закрываются фоновым потоком</li>
+ *   <li>Метрики пула доступны через {@link #getStats()}</li>
+ * </ul>
+ */
+public class ConnectionPool implements AutoCloseable {
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int maxSize;
+    private final long borrowTimeoutMs;
+    private final long idleTimeoutMs;
+    private final int validationTimeoutSec;
+
+    private final Semaphore permits;
+    private final Deque<IdleConnection> idle = new ArrayDeque<>();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private final ScheduledExecutorService evictor;
+
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder borrowWaitNanos = new LongAdder();
+    private final AtomicLong maxBorrowWaitNanos = new AtomicLong();
+    private final LongAdder createdCount = new LongAdder();
+    private final LongAdder evictedCount = new LongAdder();
+    private final LongAdder invalidatedCount = new LongAdder();
+
+    /**
+     * @param url                  JDBC URL базы данных
+     * @param user                 имя пользователя
+     * @param password             пароль
+     * @param maxSize              максимальное число физических соединений
+     * @param borrowTimeoutMs      максимальное ожидание свободного соединения
+     * @param idleTimeoutMs        время простоя, после которого соединение закрывается
+     * @param validationTimeoutSec таймаут проверки соединения перед выдачей
+     */
+    public ConnectionPool(String url, String user, String password, int maxSize,
+                          long borrowTimeoutMs, long idleTimeoutMs, int validationTimeoutSec) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Pool size must be positive: " + maxSize);
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMs = borrowTimeoutMs;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.validationTimeoutSec = validationTimeoutSec;
+        this.permits = new Semaphore(maxSize, true);
+        this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "db-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1, idleTimeoutMs / 2);
+        evictor.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Создаёт пул для указанного URL с учётными данными db.user, db.pass и настройками db.pool.*
+     */
+    public static ConnectionPool fromSystemProperties(String url) {
+        return new ConnectionPool(
+                url,
+                System.getProperty("db.user"),
+                System.getProperty("db.pass"),
+                Integer.getInteger("db.pool.size", 4),
+                Long.getLong("db.pool.borrowTimeoutMs", 30_000),
+                Long.getLong("db.pool.idleTimeoutMs", 60_000),
+                Integer.getInteger("db.pool.validationTimeoutSec", 2));
+    }
+
+    /**
+     * Выдаёт соединение из пула, открывая новое физическое соединение только при отсутствии свободных.
+     *
+     * @return обёртка над соединением; {@code close()} возвращает его в пул
+     * @throws SQLTimeoutException если свободное соединение не появилось за {@code borrowTimeoutMs}
+     * @throws SQLException        если не удалось открыть новое соединение
+     */
+    public Connection borrow() throws SQLException {
+        if (closed.get()) {
+            throw new SQLException("Connection pool is closed");
+        }
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new SQLTimeoutException(String.format(
+                        "Не удалось получить соединение за %d мс (активных: %d из %d)",
+                        borrowTimeoutMs, active.get(), maxSize));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a pooled connection", e);
+        }
+        recordWait(System.nanoTime() - start);
+
+        try {
+            Connection physical = takeValidIdle();
+            if (physical == null) {
+                physical = DriverManager.getConnection(url, user, password);
+                createdCount.increment();
+            }
+            active.incrementAndGet();
+            return wrap(physical);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Возвращает снимок метрик пула.
+     */
+    public PoolStats getStats() {
+        long borrows = borrowCount.sum();
+        int idleCount;
+        synchronized (idle) {
+            idleCount = idle.size();
+        }
+        return new PoolStats(
+                maxSize,
+                active.get(),
+                idleCount,
+                borrows,
+                borrows == 0 ? 0 : borrowWaitNanos.sum() / borrows,
+                maxBorrowWaitNanos.get(),
+                createdCount.sum(),
+                evictedCount.sum(),
+                invalidatedCount.sum());
+    }
+
+    /**
+     * Закрывает все простаивающие соединения; выданные закрываются при возврате.
+     */
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        evictor.shutdownNow();
+        synchronized (idle) {
+            idle.forEach(entry -> closeQuietly(entry.connection));
+            idle.clear();
+        }
+    }
+
+    private Connection takeValidIdle() {
+        while (true) {
+            IdleConnection entry;
+            synchronized (idle) {
+                entry = idle.pollFirst();
+            }
+            if (entry == null) {
+                return null;
+            }
+            if (isValid(entry.connection)) {
+                return entry.connection;
+            }
+            invalidatedCount.increment();
+            closeQuietly(entry.connection);
+        }
+    }
+
+    private boolean isValid(Connection connection) {
+        try {
+            return connection.isValid(validationTimeoutSec);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void release(Connection physical) {
+        active.decrementAndGet();
+        try {
+            if (closed.get() || physical.isClosed()) {
+                closeQuietly(physical);
+                return;
+            }
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            synchronized (idle) {
+                idle.offerFirst(new IdleConnection(physical, System.nanoTime()));
+            }
+        } catch (SQLException e) {
+            invalidatedCount.increment();
+            closeQuietly(physical);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void evictIdle() {
+        long deadline = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(idleTimeoutMs);
+        synchronized (idle) {
+            // Свободные соединения возвращаются в голову очереди, поэтому самые старые лежат в хвосте
+            Iterator<IdleConnection> it = idle.descendingIterator();
+            while (it.hasNext()) {
+                IdleConnection entry = it.next();
+                if (entry.idleSinceNanos - deadline > 0) {
+                    break;
+                }
+                it.remove();
+                evictedCount.increment();
+                closeQuietly(entry.connection);
+            }
+        }
+    }
+
+    private void recordWait(long nanos) {
+        borrowCount.increment();
+        borrowWaitNanos.add(nanos);
+        maxBorrowWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    private Connection wrap(Connection physical) {
+        return (Connection) Proxy.newProxyInstance(
+                ConnectionPool.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new PooledConnectionHandler(physical));
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+            // Соединение уже непригодно, ошибка закрытия не важна
+        }
+    }
+
+    private static final class IdleConnection {
+        private final Connection connection;
+        private final long idleSinceNanos;
+
+        private IdleConnection(Connection connection, long idleSinceNanos) {
+            this.connection = connection;
+            this.idleSinceNanos = idleSinceNanos;
+        }
+    }
+
+    /**
+     * Перехватывает {@code close()}/{@code isClosed()} и делегирует остальные вызовы физическому соединению.
+     * При включённых событиях JFR выдаваемые statement'ы оборачиваются для записи SQL-запросов.
+     */
+    private final class PooledConnectionHandler implements InvocationHandler {
+        private final Connection physical;
+        private final AtomicBoolean returned = new AtomicBoolean();
+
+        private PooledConnectionHandler(Connection physical) {
+            this.physical = physical;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (returned.compareAndSet(false, true)) {
+                        release(physical);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned.get() || physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled" + physical;
+                default:
+                    if (returned.get()) {
+                        throw new SQLException("Connection has already been returned to the pool");
+                    }
+                    Object result;
+                    try {
+                        result = method.invoke(physical, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                    if (result instanceof Statement && JfrEvents.isEnabled()) {
+                        String sql = args != null && args.length > 0 && args[0] instanceof String
+                                ? (String) args[0] : null;
+                        return JfrEvents.traced((Statement) result, method.getReturnType(), sql);
+                    }
+                    return result;
+            }
+        }
+    }
+}
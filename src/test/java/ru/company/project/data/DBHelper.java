@@ -5,31 +5,76 @@ import org.apache.commons.dbutils.QueryRunner;
 import org.apache.commons.dbutils.handlers.ScalarHandler;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Утилитный класс для работы с тестовой базой данных.
  * Для работы требуются системные свойства: db.url, db.user, db.pass.
+ * При {@code db.perWorker=true} используется отдельная база форка ({@link WorkerDatabase}).
+ * Соединения берутся из {@link ConnectionPool}, настраиваемого свойствами db.pool.*.
+ * При {@code db.isolation=scoped} чтение и очистка ограничены строками с id операций текущего теста ({@link DataScope}).
  */
 public class DBHelper {
+    static final String PAYMENT_TABLE = "payment_entity";
+    static final String CREDIT_TABLE = "credit_request_entity";
+    static final String ORDER_TABLE = "order_entity";
+
+    static final String LATEST_PAYMENT_STATUS = "SELECT status FROM payment_entity ORDER BY created DESC LIMIT 1";
+    static final String LATEST_CREDIT_STATUS = "SELECT status FROM credit_request_entity ORDER BY created DESC LIMIT 1";
+    static final String ORDER_COUNT = "SELECT COUNT(*) FROM order_entity";
+
+    /** Размер порции строк при потоковом чтении ({@code db.fetchSize}) */
+    private static final int FETCH_SIZE = Integer.getInteger("db.fetchSize", 1000);
+
     private static final QueryRunner runner = new QueryRunner();
-    private static final String url = System.getProperty("db.url");
-    private static final String user = System.getProperty("db.user");
-    private static final String password = System.getProperty("db.pass");
+    private static final AtomicBoolean prepared = new AtomicBoolean();
+
+    /**
+     * Ленивая инициализация пула: создаётся при первом обращении к БД (API-тесты БД не используют)
+     */
+    private static class PoolHolder {
+        private static final ConnectionPool pool = ConnectionPool.fromSystemProperties(WorkerDatabase.getUrl());
+
+        static {
+            Runtime.getRuntime().addShutdownHook(new Thread(pool::close, "db-pool-shutdown"));
+            poolStarted = true;
+        }
+    }
 
+    private static volatile boolean poolStarted;
 
     /**
-     * Устанавливает и возвращает соединение с тестовой базой данных.
+     * Выдаёт соединение с тестовой базой данных из пула.
      * Для работы требуются системные свойства: db.url, db.user, db.pass
      *
-     * @return активное соединение JDBC с базой данных
-     * @throws SQLException если не удалось установить соединение
-     *                      (неверные параметры, недоступность БД, сетевые проблемы)
+     * @return соединение JDBC; {@code close()} возвращает его в пул
+     * @throws SQLException если не удалось получить соединение
+     *                      (неверные параметры, недоступность БД, исчерпание пула)
      */
     @SneakyThrows
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(url, user, password);
+        return PoolHolder.pool.borrow();
+    }
+
+    /**
+     * Возвращает метрики пула соединений (ожидание выдачи, активные/свободные соединения).
+     * Если тесты этого JVM к БД не обращались, пул ради метрик не создаётся и результат пуст
+     */
+    public static Optional<PoolStats> getPoolStats() {
+        return poolStarted ? Optional.of(PoolHolder.pool.getStats()) : Optional.empty();
     }
 
     /**
@@ -37,7 +82,11 @@ public class DBHelper {
      */
     @SneakyThrows
     public static String getPaymentStatus() throws SQLException {
-        return getSingleResult("SELECT status FROM payment_entity ORDER BY created DESC LIMIT 1");
+        DataScope scope = DataScope.current();
+        if (scope != null) {
+            return getLatestStatus(PAYMENT_TABLE, scope.getTransactionIds());
+        }
+        return getSingleResult(LATEST_PAYMENT_STATUS);
     }
 
     /**
@@ -45,15 +94,270 @@ public class DBHelper {
      */
     @SneakyThrows
     public static String getCreditStatus() throws SQLException {
-        return getSingleResult("SELECT status FROM credit_request_entity ORDER BY created DESC LIMIT 1");
+        DataScope scope = DataScope.current();
+        if (scope != null) {
+            return getLatestStatus(CREDIT_TABLE, scope.getBankIds());
+        }
+        return getSingleResult(LATEST_CREDIT_STATUS);
     }
 
     /**
-     * Возвращает общее количество заказов в БД
+     * Возвращает общее количество заказов в БД (в режиме изоляции — заказов текущего теста)
      */
     @SneakyThrows
     public static long getOrderCount() throws SQLException {
-        return getSingleResult("SELECT COUNT(*) FROM order_entity");
+        DataScope scope = DataScope.current();
+        if (scope != null) {
+            List<String> ids = scope.getOperationIds();
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            List<Object> params = new ArrayList<>();
+            String query = scopedOrderCountQuery(ids, params);
+            try (var conn = getConnection()) {
+                Number count = runner.query(conn, query, new ScalarHandler<>(), params.toArray());
+                return count.longValue();
+            }
+        }
+        return getSingleResult(ORDER_COUNT);
+    }
+
+    /**
+     * Возвращает число заказов во всей таблице, без учёта области данных теста
+     * (прирост заказов под нагрузкой)
+     */
+    @SneakyThrows
+    public static long getTotalOrderCount() {
+        Number count = getSingleResult(ORDER_COUNT);
+        return count.longValue();
+    }
+
+    /**
+     * Читает статусы последнего платежа и кредита, число заказов и их связь с операциями одним запросом.
+     * Вместо 2–4 отдельных обращений в БД — одно, и все значения относятся к одному моменту.
+     */
+    @SneakyThrows
+    public static DbSnapshot getSnapshot() {
+        DataScope scope = DataScope.current();
+        List<Object> params = new ArrayList<>();
+        String query = snapshotQuery(scope, params);
+        try (var conn = getConnection()) {
+            return runner.query(conn, query, rs -> {
+                rs.next();
+                return new DbSnapshot(rs.getString(1), rs.getString(2), rs.getLong(3), rs.getLong(4), rs.getLong(5));
+            }, params.toArray());
+        }
+    }
+
+    /**
+     * Запрос снимка; без области данных — по таблицам целиком
+     *
+     * @param params сюда добавляются параметры условий области
+     */
+    static String snapshotQuery(DataScope scope, List<Object> params) {
+        List<String> transactionIds = scope == null ? null : scope.getTransactionIds();
+        List<String> bankIds = scope == null ? null : scope.getBankIds();
+        String paymentFilter = scopeFilter("p.transaction_id", transactionIds, params);
+        String creditFilter = scopeFilter("c.bank_id", bankIds, params);
+        String orders = scope == null ? " order_entity o" : scopedOrders(scope.getOperationIds(), params);
+        String linkedPaymentFilter = scopeFilter("p.transaction_id", transactionIds, params);
+        String linkedCreditFilter = scopeFilter("c.bank_id", bankIds, params);
+        return "SELECT"
+                + " (SELECT p.status FROM payment_entity p" + paymentFilter + " ORDER BY p.created DESC LIMIT 1),"
+                + " (SELECT c.status FROM credit_request_entity c" + creditFilter + " ORDER BY c.created DESC LIMIT 1),"
+                + " (SELECT COUNT(*) FROM" + orders + "),"
+                + " (SELECT COUNT(*) FROM order_entity o JOIN payment_entity p ON o.payment_id = p.transaction_id"
+                + linkedPaymentFilter + "),"
+                // Ссылки на заявку разворачиваются в UNION ALL, чтобы соединение было только по равенству;
+                // заказ, у которого обе ссылки указывают на одну заявку, учитывается один раз
+                + " (SELECT COUNT(*) FROM (SELECT o.credit_id AS bank_id FROM order_entity o WHERE o.credit_id IS NOT NULL"
+                + " UNION ALL SELECT o.payment_id FROM order_entity o WHERE o.payment_id IS NOT NULL"
+                + " AND (o.credit_id IS NULL OR o.credit_id <> o.payment_id)) l"
+                + " JOIN credit_request_entity c ON l.bank_id = c.bank_id" + linkedCreditFilter + ")";
+    }
+
+    /**
+     * Условие WHERE по значениям столбца из области данных; без области — пустое условие
+     */
+    private static String scopeFilter(String column, List<String> ids, List<Object> params) {
+        if (ids == null) {
+            return "";
+        }
+        if (ids.isEmpty()) {
+            return " WHERE 1 = 0";
+        }
+        params.addAll(ids);
+        return " WHERE " + column + " IN (" + placeholders(ids.size()) + ")";
+    }
+
+    /**
+     * Запрос числа заказов, ссылающихся на операции области (режим изоляции)
+     */
+    static String scopedOrderCountQuery(List<String> operationIds, List<Object> params) {
+        return "SELECT COUNT(*) FROM" + scopedOrders(operationIds, params);
+    }
+
+    /**
+     * Заказы области как производная таблица: ссылающиеся на её операции через payment_id или credit_id.
+     * Два условия равенства объединяются UNION, чтобы заказ, совпавший по обоим столбцам, считался один раз.
+     */
+    static String scopedOrders(List<String> operationIds, List<Object> params) {
+        if (operationIds.isEmpty()) {
+            return " order_entity o WHERE 1 = 0";
+        }
+        params.addAll(operationIds);
+        params.addAll(operationIds);
+        String in = " IN (" + placeholders(operationIds.size()) + ")";
+        return " (SELECT id FROM order_entity WHERE payment_id" + in
+                + " UNION SELECT id FROM order_entity WHERE credit_id" + in + ") o";
+    }
+
+    /**
+     * Возвращает статус самой свежей операции таблицы среди указанных id банка.
+     *
+     * @return статус или null, если список id пуст или строк ещё нет
+     */
+    @SneakyThrows
+    private static String getLatestStatus(String table, List<String> operationIds) {
+        if (operationIds.isEmpty()) {
+            return null;
+        }
+        try (var conn = getConnection()) {
+            return runner.query(conn, latestStatusQuery(table, operationIds.size()), new ScalarHandler<>(),
+                    operationIds.toArray());
+        }
+    }
+
+    /**
+     * Запрос статуса самой свежей строки среди {@code count} id операций банка (режим изоляции)
+     */
+    static String latestStatusQuery(String table, int count) {
+        return "SELECT status FROM " + table + " WHERE " + operationColumn(table) + " IN (" + placeholders(count) + ")"
+                + " ORDER BY created DESC LIMIT 1";
+    }
+
+    /**
+     * Столбец, в котором приложение хранит id операции, выданный банком
+     */
+    private static String operationColumn(String table) {
+        return PAYMENT_TABLE.equals(table) ? "transaction_id" : "bank_id";
+    }
+
+    /**
+     * Удаляет строки области данных: заказы, платежи и заявки с её id операций
+     */
+    @SneakyThrows
+    static void deleteScoped(DataScope scope) {
+        List<String> operationIds = scope.getOperationIds();
+        if (operationIds.isEmpty()) {
+            return;
+        }
+        try (var conn = getConnection()) {
+            deleteWhereIn(conn, ORDER_TABLE, "payment_id", operationIds);
+            deleteWhereIn(conn, ORDER_TABLE, "credit_id", operationIds);
+            deleteWhereIn(conn, PAYMENT_TABLE, "transaction_id", scope.getTransactionIds());
+            deleteWhereIn(conn, CREDIT_TABLE, "bank_id", scope.getBankIds());
+        }
+    }
+
+    private static void deleteWhereIn(Connection conn, String table, String column, List<String> values)
+            throws SQLException {
+        if (!values.isEmpty()) {
+            runner.update(conn, "DELETE FROM " + table + " WHERE " + column + " IN (" + placeholders(values.size()) + ")",
+                    values.toArray());
+        }
+    }
+
+    /**
+     * Преобразует текущую строку результата в объект при потоковом чтении
+     */
+    @FunctionalInterface
+    public interface RowMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * Потоковое чтение результата запроса: строки выбираются из БД по мере потребления потока,
+     * поэтому память не зависит от размера таблицы. PostgreSQL отдаёт строки порциями по
+     * {@code db.fetchSize} через серверный курсор (только вне автокоммита), MySQL — построчно
+     * при fetch size {@link Integer#MIN_VALUE}.
+     *
+     * <p>Поток держит отдельное соединение из пула до закрытия, поэтому его нужно закрывать:
+     * {@code try (Stream<T> rows = DBHelper.stream(...)) {...}} (см. {@link OrderReconciler}). Закрытие недочитанного
+     * потока на MySQL дочитывает оставшиеся строки драйвером.</p>
+     *
+     * @param query  SQL-запрос
+     * @param mapper преобразование строки; вызывается для каждой строки по мере чтения
+     * @param params параметры запроса
+     */
+    @SneakyThrows
+    public static <T> Stream<T> stream(String query, RowMapper<T> mapper, Object... params) {
+        Connection conn = getConnection();
+        PreparedStatement statement = null;
+        try {
+            // Автокоммит восстанавливает пул при возврате соединения
+            conn.setAutoCommit(false);
+            statement = conn.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(WorkerDatabase.getUrl().startsWith("jdbc:mysql:") ? Integer.MIN_VALUE : FETCH_SIZE);
+            for (int i = 0; i < params.length; i++) {
+                statement.setObject(i + 1, params[i]);
+            }
+            ResultSet rs = statement.executeQuery();
+            Spliterator<T> rows = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE, Spliterator.ORDERED) {
+                @Override
+                @SneakyThrows
+                public boolean tryAdvance(Consumer<? super T> action) {
+                    if (!rs.next()) {
+                        return false;
+                    }
+                    action.accept(mapper.map(rs));
+                    return true;
+                }
+            };
+            Statement opened = statement;
+            return StreamSupport.stream(rows, false).onClose(() -> closeAll(rs, opened, conn));
+        } catch (SQLException | RuntimeException e) {
+            closeAll(statement, conn);
+            throw e;
+        }
+    }
+
+    /**
+     * Известные статусы заменяются константами, чтобы миллионы строк не хранили одинаковые копии
+     */
+    static String canonicalStatus(String status) {
+        if (CardTestData.STATUS_APPROVED.equals(status)) {
+            return CardTestData.STATUS_APPROVED;
+        }
+        if (CardTestData.STATUS_DECLINED.equals(status)) {
+            return CardTestData.STATUS_DECLINED;
+        }
+        return status;
+    }
+
+    @SneakyThrows
+    private static void closeAll(AutoCloseable... resources) {
+        Exception failure = null;
+        for (AutoCloseable resource : resources) {
+            try {
+                if (resource != null) {
+                    resource.close();
+                }
+            } catch (Exception e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
     }
 
     /**
@@ -72,13 +376,32 @@ public class DBHelper {
     }
 
     /**
-     * Очищает тестовые таблицы (payment_entity, order_entity, credit_request_entity).
-     * Выполняет DELETE запросы для очистки тестовых данных.
+     * Подготавливает БД к прогону: в режиме изоляции один раз за JVM очищает таблицы целиком.
+     * В обычном режиме ничего не делает — таблицы очищаются после каждого теста.
+     */
+    public static void prepareDatabase() {
+        if (DataScope.isEnabled() && prepared.compareAndSet(false, true)) {
+            deleteAll();
+        }
+    }
+
+    /**
+     * Очищает тестовые данные после теста.
+     * В режиме изоляции удаляет только строки текущего теста, иначе — все строки
+     * таблиц payment_entity, order_entity, credit_request_entity.
      *
      * @throws RuntimeException если произошла ошибка при очистке базы данных
      */
-    @SneakyThrows
     public static void cleanDatabase() {
+        if (DataScope.isEnabled()) {
+            DataScope.end();
+            return;
+        }
+        deleteAll();
+    }
+
+    @SneakyThrows
+    private static void deleteAll() {
         try (var conn = getConnection()) {
             runner.execute(conn, "DELETE FROM credit_request_entity");
             runner.execute(conn, "DELETE FROM order_entity");
@@ -1,20 +1,14 @@
 package ru.company.project.data;
 
-import com.github.javafaker.Faker;
-
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.util.Locale;
 import java.util.Objects;
 
 
 /**
  * Генератор тестовых данных для платежной системы.
  * Поддерживает относительные даты, случайные имена и CVC-коды.
+ * Значения генерирует {@link CardDataGenerator} текущего потока.
  */
 public class DataHelper {
-    private static final Faker fakerEn = new Faker(new Locale("en"));
-    private static final Faker fakerRu = new Faker(new Locale("ru"));
 
     /**
      * Генерирует месяц в формате "MM" на основе входных данных.
@@ -25,11 +19,7 @@ public class DataHelper {
      */
     public static String getMonth(Object monthInput) {
         if (monthInput instanceof Integer) {
-            int relativeMonth = (Integer) monthInput;
-            LocalDate date = relativeMonth >= 0
-                    ? LocalDate.now().plusMonths(relativeMonth)
-                    : LocalDate.now().minusMonths(-relativeMonth);
-            return date.format(DateTimeFormatter.ofPattern("MM"));
+            return CardDataGenerator.month((Integer) monthInput);
         }
         String monthStr = monthInput.toString();
         if (monthStr.isEmpty()) {
@@ -47,11 +37,7 @@ public class DataHelper {
      */
     public static String getYear(Object yearInput) {
         if (yearInput instanceof Integer) {
-            int relativeYear = (Integer) yearInput;
-            LocalDate date = relativeYear >= 0
-                    ? LocalDate.now().plusYears(relativeYear)
-                    : LocalDate.now().minusYears(-relativeYear);
-            return date.format(DateTimeFormatter.ofPattern("yy"));
+            return CardDataGenerator.year((Integer) yearInput);
         }
         String yearStr = yearInput.toString();
         if (yearStr.isEmpty()) {
@@ -74,9 +60,9 @@ public class DataHelper {
         String upperFormat = format.toUpperCase();
 
         switch (upperFormat) {
-            case "FIRST_NAME_HOLDER": return fakerEn.name().firstName();
-            case "VALID_HOLDER": return fakerEn.name().firstName() + " " + fakerEn.name().lastName();
-            case "HOLDER_CYRILLIC": return fakerRu.name().firstName() + " " + fakerRu.name().lastName();
+            case "FIRST_NAME_HOLDER": return CardDataGenerator.current().firstName();
+            case "VALID_HOLDER": return CardDataGenerator.current().holder();
+            case "HOLDER_CYRILLIC": return CardDataGenerator.current().cyrillicHolder();
             default: return format; // Для тестов спецсимволов (инъекций)!
         }
     }
@@ -87,7 +73,6 @@ public class DataHelper {
      * @return CVC-код (например, "123" для шаблона "###")
      */
     public static String getCvc(String numberStringCvc) {
-        Faker faker = new Faker();
-        return faker.numerify(numberStringCvc);
+        return CardDataGenerator.current().cvc(numberStringCvc);
     }
 }
\ No newline at end of file
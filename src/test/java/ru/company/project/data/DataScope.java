@@ -0,0 +1,171 @@
+package ru.company.project.data;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Область данных одного теста для режима изоляции {@code db.isolation=scoped}.
+ *
+ * <p>Строки закрепляются за тестом по идентификатору операции, который выдаёт банк: приложение сохраняет
+ * {@code id} из ответа симулятора в {@code payment_entity.transaction_id} или
+ * {@code credit_request_entity.bank_id}, а заказ ссылается на него через {@code order_entity.payment_id}
+ * или {@code credit_id}. Поэтому режим требует встроенного симулятора ({@code gate.embedded=true}):
+ * он сообщает, какой id выдан по отправке теста ({@link #attributeGateRequest}).</p>
+ *
+ * <p>Чтобы связать запрос к банку с тестом, отправка формы берёт общий для JVM замок
+ * ({@link #openSubmitWindow(String)}); первый запрос приложения к симулятору с номером карты этой отправки
+ * закрепляет выданный id за тестом и отпускает замок. Последовательным остаётся только путь от нажатия
+ * "Продолжить" до обращения приложения к банку. Если приложение ответило, не обратившись к банку
+ * (форма отклонена), замок отпускает {@link #closeSubmitWindow()}; если ответа нет — конец теста.</p>
+ *
+ * <p>Чтения и очистка области выполняются по идентификаторам банка, поэтому видят и строки,
+ * которые приложение записало уже после ответа. Строка, записанная после конца теста, остаётся
+ * в таблице до очистки в начале следующего прогона, но чужим тестам не видна.</p>
+ */
+public class DataScope {
+    private static final boolean enabled = "scoped".equalsIgnoreCase(System.getProperty("db.isolation", "global"));
+    private static final ThreadLocal<DataScope> current = new ThreadLocal<>();
+    private static final Semaphore submitWindow = new Semaphore(1, true);
+    /** Область, отправка которой ждёт обращения приложения к банку */
+    private static final AtomicReference<DataScope> submitting = new AtomicReference<>();
+
+    /** id платежей, выданные банком ({@code payment_entity.transaction_id}) */
+    private final List<String> transactionIds = new CopyOnWriteArrayList<>();
+    /** id кредитных заявок, выданные банком ({@code credit_request_entity.bank_id}) */
+    private final List<String> bankIds = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean windowOpen = new AtomicBoolean();
+    private volatile String submittedDigits;
+
+    /**
+     * Включён ли режим изоляции (системное свойство db.isolation=scoped)
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Открывает область данных для теста, выполняемого в текущем потоке
+     *
+     * @throws IllegalStateException если изоляция включена без встроенного симулятора банка
+     */
+    public static void begin() {
+        if (!enabled) {
+            return;
+        }
+        if (!Boolean.getBoolean("gate.embedded")) {
+            throw new IllegalStateException("db.isolation=scoped закрепляет строки по id операций банка"
+                    + " и требует встроенного симулятора: -Dgate.embedded=true");
+        }
+        current.set(new DataScope());
+    }
+
+    /**
+     * Возвращает область данных текущего теста или null, если изоляция выключена
+     */
+    public static DataScope current() {
+        return current.get();
+    }
+
+    /**
+     * Вызывается перед отправкой формы: ближайший запрос приложения к банку с этим номером карты
+     * будет закреплён за текущим тестом. Ждёт, пока окна других тестов закроются.
+     *
+     * @param cardNumber номер карты в том виде, в каком его отправит форма
+     */
+    public static void openSubmitWindow(String cardNumber) {
+        DataScope scope = current.get();
+        if (scope == null || scope.windowOpen.get()) {
+            return;
+        }
+        submitWindow.acquireUninterruptibly();
+        scope.submittedDigits = digits(cardNumber);
+        scope.windowOpen.set(true);
+        submitting.set(scope);
+    }
+
+    /**
+     * Вызывается, когда приложение ответило на отправку формы: если к банку оно так и не обратилось,
+     * окно отпускается для других тестов
+     */
+    public static void closeSubmitWindow() {
+        DataScope scope = current.get();
+        if (scope != null) {
+            scope.closeWindow();
+        }
+    }
+
+    /**
+     * Вызывается встроенным симулятором банка при получении запроса, до ответа: id, который будет выдан,
+     * закрепляется за тестом, чья отправка с этим номером карты ждёт обращения к банку.
+     *
+     * @param number номер карты из запроса
+     * @param credit запрос на маршрут /credit (иначе /payment)
+     * @param id     идентификатор операции, который симулятор вернёт в ответе
+     */
+    public static void attributeGateRequest(String number, boolean credit, String id) {
+        DataScope scope = submitting.get();
+        if (scope == null || !scope.submittedDigits.equals(digits(number)) || !submitting.compareAndSet(scope, null)) {
+            return;
+        }
+        (credit ? scope.bankIds : scope.transactionIds).add(id);
+        scope.closeWindow();
+    }
+
+    /**
+     * Закрывает область: отпускает окно отправки и удаляет из БД строки теста.
+     */
+    public static void end() {
+        DataScope scope = current.get();
+        if (scope == null) {
+            return;
+        }
+        current.remove();
+        try {
+            scope.closeWindow();
+        } finally {
+            DBHelper.deleteScoped(scope);
+        }
+    }
+
+    /**
+     * id операций, выданные банком по платежам теста
+     */
+    public List<String> getTransactionIds() {
+        return Collections.unmodifiableList(transactionIds);
+    }
+
+    /**
+     * id операций, выданные банком по кредитным заявкам теста
+     */
+    public List<String> getBankIds() {
+        return Collections.unmodifiableList(bankIds);
+    }
+
+    /**
+     * Все id операций теста — по ним заказ ссылается на платёж или заявку
+     */
+    public List<String> getOperationIds() {
+        List<String> ids = new ArrayList<>(transactionIds);
+        ids.addAll(bankIds);
+        return ids;
+    }
+
+    private void closeWindow() {
+        if (windowOpen.compareAndSet(true, false)) {
+            submitting.compareAndSet(this, null);
+            submitWindow.release();
+        }
+    }
+
+    /**
+     * Маска формы расставляет пробелы в номере, поэтому номера сравниваются по цифрам
+     */
+    private static String digits(String number) {
+        return number == null ? "" : number.replaceAll("\\D", "");
+    }
+}
@@ -0,0 +1,35 @@
+package ru.company.project.data;
+
+import io.qameta.allure.Allure;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.DynamicTestInvocationContext;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.InvocationInterceptor;
+
+/**
+ * Перед каждым тестом переключает {@link CardDataGenerator} потока на последовательность этого теста
+ * и прикладывает к нему в Allure сид прогона. Подключается автоматически
+ * (junit.jupiter.extensions.autodetection.enabled).
+ */
+public class DataSeedExtension implements BeforeEachCallback, InvocationInterceptor {
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        startTest(context);
+    }
+
+    /**
+     * Динамические тесты не проходят через beforeEach
+     */
+    @Override
+    public void interceptDynamicTest(Invocation<Void> invocation, DynamicTestInvocationContext invocationContext,
+                                     ExtensionContext extensionContext) throws Throwable {
+        startTest(extensionContext);
+        invocation.proceed();
+    }
+
+    private static void startTest(ExtensionContext context) {
+        CardDataGenerator.startTest(context.getUniqueId());
+        Allure.addAttachment("Сид данных", "text/plain", "-Ddata.seed=" + CardDataGenerator.seed());
+    }
+}
@@ -0,0 +1,31 @@
+package ru.company.project.data;
+
+import lombok.Value;
+
+/**
+ * Согласованный снимок результата операции в БД, прочитанный одним запросом ({@link DBHelper#getSnapshot()}).
+ *
+ * <p>Связь заказа с операцией: {@code order_entity.payment_id} — {@code payment_entity.transaction_id}
+ * для оплаты, {@code credit_id} или {@code payment_id} — {@code credit_request_entity.bank_id} для кредита.</p>
+ */
+@Value
+public class DbSnapshot {
+    /** Статус последнего платежа или null */
+    String paymentStatus;
+    /** Статус последней кредитной заявки или null */
+    String creditStatus;
+    /** Количество заказов */
+    long orderCount;
+    /** Заказы, связанные с платежом */
+    long ordersWithPayment;
+    /** Заказы, связанные с кредитной заявкой */
+    long ordersWithCredit;
+
+    /**
+     * Заказы, не связанные ни с платежом, ни с кредитной заявкой. Отрицательное значение — заказ
+     * учтён в связях дважды (ссылается и на платёж, и на заявку)
+     */
+    public long getUnlinkedOrders() {
+        return orderCount - ordersWithPayment - ordersWithCredit;
+    }
+}
@@ -0,0 +1,282 @@
+package ru.company.project.data;
+
+import lombok.SneakyThrows;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Наполнение таблиц приложения миллионами связанных строк — для проверок и бенчмарков на объёмах,
+ * близких к промышленным.
+ *
+ * <p>Каждая покупка — платёж или кредитная заявка и заказ, ссылающийся на неё так же, как это делает
+ * приложение ({@code order_entity.payment_id} — {@code transaction_id} платежа, {@code credit_id} —
+ * {@code bank_id} заявки). Время создания равномерно распределено за {@code seed.spanDays} дней до
+ * начала загрузки, поэтому строки, созданные тестами позже, остаются самыми свежими для
+ * {@code ORDER BY created DESC LIMIT 1}.</p>
+ *
+ * <ul>
+ *   <li>MySQL: многострочные {@code INSERT ... VALUES (...), (...)} по {@code seed.batch} строк;</li>
+ *   <li>PostgreSQL: протокол {@code COPY ... FROM STDIN} через {@link CopyManager} драйвера,
+ *   порциями по {@code seed.batch} строк в CSV.</li>
+ * </ul>
+ *
+ * <p>Покупки делятся поровну между {@code seed.threads} потоками, у каждого своё соединение
+ * в обход пула {@link DBHelper} и свой генератор, поэтому набор данных детерминирован по {@code data.seed}.
+ * Перед загрузкой таблицы очищаются {@code TRUNCATE} (отключается {@code seed.clean=false}).</p>
+ *
+ * <p>Запуск: {@code ./gradlew seedDatabase -PseedRows=10000000 -Ddb.url=...}</p>
+ */
+public class FixtureSeeder {
+    /** Цена тура в копейках, как её записывает приложение */
+    private static final long TOUR_AMOUNT = 4_500_000;
+    private static final String[] TABLES = {DBHelper.PAYMENT_TABLE, DBHelper.CREDIT_TABLE, DBHelper.ORDER_TABLE};
+    private static final String[] COLUMNS = {
+            "id, amount, created, status, transaction_id",
+            "id, bank_id, created, status",
+            "id, created, credit_id, payment_id"
+    };
+    private static final int PAYMENTS = 0;
+    private static final int CREDITS = 1;
+    private static final int ORDERS = 2;
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int threads;
+    private final int batchSize;
+    private final double creditRatio;
+    private final double approvedRatio;
+    private final long spanMillis;
+    private final long seed;
+    private final boolean clean;
+
+    /**
+     * @param threads       число параллельных соединений
+     * @param batchSize     строк в одном INSERT или одной порции COPY
+     * @param creditRatio   доля кредитных заявок среди покупок
+     * @param approvedRatio доля одобренных операций
+     * @param spanDays      за сколько дней до загрузки распределено время создания
+     * @param seed          seed генератора
+     * @param clean         очищать ли таблицы перед загрузкой
+     */
+    public FixtureSeeder(String url, String user, String password, int threads, int batchSize,
+                         double creditRatio, double approvedRatio, int spanDays, long seed, boolean clean) {
+        if (threads < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("Threads and batch size must be positive: " + threads + ", " + batchSize);
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.threads = threads;
+        this.batchSize = batchSize;
+        this.creditRatio = creditRatio;
+        this.approvedRatio = approvedRatio;
+        this.spanMillis = TimeUnit.DAYS.toMillis(spanDays);
+        this.seed = seed;
+        this.clean = clean;
+    }
+
+    /**
+     * Параметры из системных свойств: db.url/db.user/db.pass (с учётом {@link WorkerDatabase}),
+     * seed.threads (4), seed.batch (5000), seed.creditRatio (0.3), seed.approvedRatio (0.7),
+     * seed.spanDays (365), data.seed (42), seed.clean (true)
+     */
+    public static FixtureSeeder fromSystemProperties() {
+        return new FixtureSeeder(WorkerDatabase.getUrl(), System.getProperty("db.user"), System.getProperty("db.pass"),
+                Integer.getInteger("seed.threads", 4),
+                Integer.getInteger("seed.batch", 5000),
+                Double.parseDouble(System.getProperty("seed.creditRatio", "0.3")),
+                Double.parseDouble(System.getProperty("seed.approvedRatio", "0.7")),
+                Integer.getInteger("seed.spanDays", 365),
+                Long.getLong("data.seed", 42),
+                Boolean.parseBoolean(System.getProperty("seed.clean", "true")));
+    }
+
+    /**
+     * Загружает указанное число покупок (каждая — две строки) и возвращает скорость загрузки
+     */
+    @SneakyThrows
+    public SeedResult seed(long purchases) {
+        long start = System.nanoTime();
+        if (clean) {
+            truncate();
+        }
+        long loadStartMillis = System.currentTimeMillis();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> parts = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                long from = purchases * t / threads;
+                long to = purchases * (t + 1) / threads;
+                SplittableRandom random = new SplittableRandom(seed + 0x9E3779B97F4A7C15L * (t + 1));
+                parts.add(pool.submit(() -> load(to - from, random, loadStartMillis)));
+            }
+            for (Future<?> part : parts) {
+                part.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return new SeedResult(purchases, purchases * 2, System.nanoTime() - start);
+    }
+
+    private void truncate() throws SQLException {
+        try (Connection conn = DriverManager.getConnection(url, user, password);
+             Statement statement = conn.createStatement()) {
+            for (String table : TABLES) {
+                statement.execute("TRUNCATE TABLE " + table);
+            }
+        }
+    }
+
+    private Void load(long purchases, SplittableRandom random, long endMillis) throws Exception {
+        try (Connection conn = DriverManager.getConnection(url, user, password)) {
+            Sink sink = url.startsWith("jdbc:postgresql:") ? new CopySink(conn) : new BatchInsertSink(conn);
+            for (long i = 0; i < purchases; i++) {
+                boolean credit = random.nextDouble() < creditRatio;
+                String status = random.nextDouble() < approvedRatio
+                        ? CardTestData.STATUS_APPROVED : CardTestData.STATUS_DECLINED;
+                String externalId = uuid(random);
+                Timestamp created = new Timestamp(endMillis - 1 - random.nextLong(spanMillis));
+                if (credit) {
+                    sink.add(CREDITS, uuid(random), externalId, created, status);
+                    sink.add(ORDERS, uuid(random), created, externalId, null);
+                } else {
+                    sink.add(PAYMENTS, uuid(random), TOUR_AMOUNT, created, status, externalId);
+                    sink.add(ORDERS, uuid(random), created, null, externalId);
+                }
+            }
+            sink.flushAll();
+        }
+        return null;
+    }
+
+    /**
+     * UUID версии 4 из генератора потока — без обращения к SecureRandom, как у {@link UUID#randomUUID()}
+     */
+    private static String uuid(SplittableRandom random) {
+        long high = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long low = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(high, low).toString();
+    }
+
+    /**
+     * Накопитель строк по таблицам: сбрасывает таблицу в БД, когда в ней набралось {@code batchSize} строк
+     */
+    private abstract class Sink {
+        private final List<List<Object>> buffers = List.of(new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+
+        void add(int table, Object... values) throws Exception {
+            List<Object> buffer = buffers.get(table);
+            Collections.addAll(buffer, values);
+            if (buffer.size() == batchSize * values.length) {
+                flush(table, buffer, batchSize);
+                buffer.clear();
+            }
+        }
+
+        void flushAll() throws Exception {
+            for (int table = 0; table < TABLES.length; table++) {
+                List<Object> buffer = buffers.get(table);
+                if (!buffer.isEmpty()) {
+                    flush(table, buffer, buffer.size() / width(table));
+                    buffer.clear();
+                }
+            }
+        }
+
+        abstract void flush(int table, List<Object> values, int rows) throws Exception;
+    }
+
+    private static int width(int table) {
+        return COLUMNS[table].split(",").length;
+    }
+
+    /**
+     * MySQL: один многострочный INSERT на порцию; подготовленные запросы полного размера переиспользуются
+     */
+    private class BatchInsertSink extends Sink {
+        private final Connection conn;
+        private final Map<String, PreparedStatement> statements = new HashMap<>();
+
+        BatchInsertSink(Connection conn) {
+            this.conn = conn;
+        }
+
+        @Override
+        void flush(int table, List<Object> values, int rows) throws SQLException {
+            String row = "(" + String.join(", ", Collections.nCopies(width(table), "?")) + ")";
+            String sql = "INSERT INTO " + TABLES[table] + " (" + COLUMNS[table] + ") VALUES "
+                    + String.join(", ", Collections.nCopies(rows, row));
+            PreparedStatement statement = statements.get(sql);
+            if (statement == null) {
+                statement = conn.prepareStatement(sql);
+                if (rows == batchSize) {
+                    statements.put(sql, statement);
+                }
+            }
+            for (int i = 0; i < values.size(); i++) {
+                statement.setObject(i + 1, values.get(i));
+            }
+            statement.executeUpdate();
+            if (rows != batchSize) {
+                statement.close();
+            }
+        }
+    }
+
+    /**
+     * PostgreSQL: порция передаётся одним {@code COPY ... FROM STDIN} в формате CSV
+     */
+    private class CopySink extends Sink {
+        private final CopyManager copy;
+
+        CopySink(Connection conn) throws SQLException {
+            this.copy = conn.unwrap(PGConnection.class).getCopyAPI();
+        }
+
+        @Override
+        void flush(int table, List<Object> values, int rows) throws Exception {
+            int width = width(table);
+            StringBuilder csv = new StringBuilder(rows * 128);
+            for (int i = 0; i < values.size(); i++) {
+                Object value = values.get(i);
+                // Пустое поле без кавычек в CSV — NULL; остальные значения не содержат запятых и кавычек
+                if (value != null) {
+                    csv.append(value);
+                }
+                csv.append((i + 1) % width == 0 ? '\n' : ',');
+            }
+            copy.copyIn("COPY " + TABLES[table] + " (" + COLUMNS[table] + ") FROM STDIN WITH (FORMAT csv)",
+                    new StringReader(csv.toString()));
+        }
+    }
+
+    /**
+     * Аргументы: [число покупок = 1000000]; остальные параметры — системные свойства, см. {@link #fromSystemProperties()}
+     */
+    public static void main(String[] args) {
+        long purchases = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000;
+        SeedResult result = fromSystemProperties().seed(purchases);
+        System.out.println("Загружено: " + result.summary());
+    }
+}
@@ -0,0 +1,100 @@
+package ru.company.project.data;
+
+import lombok.SneakyThrows;
+import lombok.Value;
+import org.apache.commons.dbutils.QueryRunner;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Сверка всех заказов с платежами и кредитными заявками после массовых покупок.
+ *
+ * <p>Заказы сопоставляются с операциями соединением на стороне БД; клиент получает потоком
+ * ({@link DBHelper#stream}) одну строку на операцию — её вид, статус и число заказов — и только
+ * суммирует счётчики. Память не зависит от размера таблиц: операция без заказа — потерянная запись,
+ * больше одного заказа — дубликат. "Висячие" заказы, не ссылающиеся ни на одну операцию,
+ * считаются отдельным агрегатным запросом.</p>
+ *
+ * <p>Заказ кредита ссылается на заявку через {@code credit_id} или {@code payment_id}. Все соединения —
+ * только по равенству: условие с OR исключает hash и merge join, и на миллионах строк запрос
+ * вырождается во вложенные циклы. Поэтому ссылки заказов на заявки сначала разворачиваются в один
+ * столбец (UNION ALL двух веток) и группируются, а проверка "висячих" заказов разбита на три
+ * NOT EXISTS с одним равенством каждый (anti join). Оба запроса проверяет {@code QueryPlanTest}.</p>
+ */
+public class OrderReconciler {
+    static final String OPERATIONS = "SELECT 'P', p.status, COUNT(o.id) FROM payment_entity p"
+            + " LEFT JOIN order_entity o ON o.payment_id = p.transaction_id GROUP BY p.id, p.status"
+            + " UNION ALL"
+            + " SELECT 'C', c.status, COALESCE(l.orders, 0) FROM credit_request_entity c"
+            + " LEFT JOIN (SELECT bank_id, COUNT(*) AS orders FROM ("
+            + "SELECT o.credit_id AS bank_id FROM order_entity o WHERE o.credit_id IS NOT NULL"
+            + " UNION ALL"
+            // Заказ, у которого обе ссылки указывают на одну заявку, учитывается один раз
+            + " SELECT o.payment_id FROM order_entity o WHERE o.payment_id IS NOT NULL"
+            + " AND (o.credit_id IS NULL OR o.credit_id <> o.payment_id)"
+            + ") links GROUP BY bank_id) l ON l.bank_id = c.bank_id";
+    static final String ORDERS = "SELECT (SELECT COUNT(*) FROM order_entity),"
+            + " (SELECT COUNT(*) FROM order_entity o"
+            + " WHERE NOT EXISTS (SELECT 1 FROM payment_entity p WHERE p.transaction_id = o.payment_id)"
+            + " AND NOT EXISTS (SELECT 1 FROM credit_request_entity c WHERE c.bank_id = o.credit_id)"
+            + " AND NOT EXISTS (SELECT 1 FROM credit_request_entity c WHERE c.bank_id = o.payment_id))";
+
+    /**
+     * Сверяет таблицы целиком, без учёта области данных теста
+     */
+    @SneakyThrows
+    public static OrderReconciliation reconcile() {
+        long started = System.nanoTime();
+        Tally tally = new Tally();
+        try (Stream<OperationRow> operations = DBHelper.stream(OPERATIONS,
+                rs -> new OperationRow("C".equals(rs.getString(1)), DBHelper.canonicalStatus(rs.getString(2)),
+                        rs.getInt(3)))) {
+            operations.forEach(tally::add);
+        }
+
+        long[] orders;
+        try (var conn = DBHelper.getConnection()) {
+            orders = new QueryRunner().query(conn, ORDERS, rs -> {
+                rs.next();
+                return new long[]{rs.getLong(1), rs.getLong(2)};
+            });
+        }
+        return new OrderReconciliation(orders[0], tally.paymentStatuses, tally.creditStatuses, orders[1],
+                tally.duplicateOrders, tally.paymentsWithoutOrder, tally.creditsWithoutOrder,
+                tally.operations + orders[0], System.nanoTime() - started);
+    }
+
+    /**
+     * Операция и число ссылающихся на неё заказов
+     */
+    @Value
+    private static class OperationRow {
+        boolean credit;
+        String status;
+        int orders;
+    }
+
+    private static class Tally {
+        private final Map<String, Long> paymentStatuses = new TreeMap<>();
+        private final Map<String, Long> creditStatuses = new TreeMap<>();
+        private long paymentsWithoutOrder;
+        private long creditsWithoutOrder;
+        private long duplicateOrders;
+        private long operations;
+
+        private void add(OperationRow operation) {
+            operations++;
+            (operation.isCredit() ? creditStatuses : paymentStatuses)
+                    .merge(String.valueOf(operation.getStatus()), 1L, Long::sum);
+            if (operation.getOrders() > 0) {
+                duplicateOrders += operation.getOrders() - 1;
+            } else if (operation.isCredit()) {
+                creditsWithoutOrder++;
+            } else {
+                paymentsWithoutOrder++;
+            }
+        }
+    }
+}
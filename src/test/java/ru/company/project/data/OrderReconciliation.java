@@ -0,0 +1,58 @@
+package ru.company.project.data;
+
+import lombok.Value;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Результат сверки заказов с платежами и кредитными заявками ({@link OrderReconciler#reconcile()}).
+ *
+ * <p>Связь заказа с операцией та же, что в {@link DbSnapshot}: {@code order_entity.payment_id} —
+ * {@code payment_entity.transaction_id}, {@code credit_id} или {@code payment_id} —
+ * {@code credit_request_entity.bank_id}.</p>
+ */
+@Value
+public class OrderReconciliation {
+    long orders;
+    /** Число платежей по статусам */
+    Map<String, Long> paymentStatuses;
+    /** Число кредитных заявок по статусам */
+    Map<String, Long> creditStatuses;
+    /** Заказы, не ссылающиеся ни на платёж, ни на заявку */
+    long orphanOrders;
+    /** Лишние заказы на одну и ту же операцию */
+    long duplicateOrders;
+    /** Платежи, на которые не ссылается ни один заказ */
+    long paymentsWithoutOrder;
+    /** Кредитные заявки, на которые не ссылается ни один заказ */
+    long creditsWithoutOrder;
+    /** Всего прочитано строк из трёх таблиц */
+    long rowsRead;
+    long elapsedNanos;
+
+    public long getPaymentCount(String status) {
+        return paymentStatuses.getOrDefault(status, 0L);
+    }
+
+    public long getCreditCount(String status) {
+        return creditStatuses.getOrDefault(status, 0L);
+    }
+
+    /**
+     * Скорость сверки, строк в секунду
+     */
+    public double getRowsPerSecond() {
+        return elapsedNanos <= 0 ? 0 : rowsRead * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    public String summary() {
+        return String.format(Locale.ROOT,
+                "orders=%d, payments=%s, credits=%s%n"
+                        + "orphan orders=%d, duplicate orders=%d, payments without order=%d, credits without order=%d%n"
+                        + "reconciled %d rows in %.1f ms (%.0f rows/s)",
+                orders, paymentStatuses, creditStatuses, orphanOrders, duplicateOrders, paymentsWithoutOrder,
+                creditsWithoutOrder, rowsRead, elapsedNanos / 1e6, getRowsPerSecond());
+    }
+}
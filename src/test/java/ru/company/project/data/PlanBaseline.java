@@ -0,0 +1,100 @@
+package ru.company.project.data;
+
+import lombok.SneakyThrows;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.OptionalDouble;
+import java.util.Properties;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Эталоны планов для одной СУБД: файл {@code query-plans/<СУБД>.properties} в ресурсах тестов.
+ *
+ * <p>Для каждого запроса из {@link QueryCatalog}:</p>
+ * <ul>
+ *   <li>{@code <запрос>.allowFullScan} — таблицы, полный просмотр которых ожидаем (например, COUNT(*));</li>
+ *   <li>{@code <запрос>.ms} — эталонное время выполнения; если не задано, первый прогон дописывает
+ *   его замер ({@link #appendMillis}).</li>
+ * </ul>
+ */
+public class PlanBaseline {
+    private final Properties properties;
+
+    private PlanBaseline(Properties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Загружает эталоны СУБД из classpath; без файла — пустые эталоны
+     */
+    @SneakyThrows
+    public static PlanBaseline load(String backend) {
+        Properties properties = new Properties();
+        try (InputStream in = PlanBaseline.class.getClassLoader()
+                .getResourceAsStream("query-plans/" + backend + ".properties")) {
+            if (in != null) {
+                properties.load(new InputStreamReader(in, StandardCharsets.UTF_8));
+            }
+        }
+        return new PlanBaseline(properties);
+    }
+
+    /**
+     * Таблицы, которые запросу разрешено читать полным просмотром
+     */
+    public Set<String> allowedFullScans(String query) {
+        String value = properties.getProperty(query + ".allowFullScan", "");
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(table -> !table.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    /**
+     * Эталонное время выполнения запроса, мс
+     */
+    public OptionalDouble millis(String query) {
+        String value = properties.getProperty(query + ".ms");
+        return value == null ? OptionalDouble.empty() : OptionalDouble.of(Double.parseDouble(value));
+    }
+
+    /**
+     * Дописывает в файл эталонов время запросов, для которых его ещё не было. Остальное содержимое файла,
+     * в том числе комментарии, сохраняется.
+     */
+    @SneakyThrows
+    public static void appendMillis(Path file, Collection<QueryPlan> plans) {
+        StringBuilder text = new StringBuilder("# Время первого замера, эталона для которого не было\n");
+        plans.stream().sorted(Comparator.comparing(QueryPlan::getName)).forEach(plan -> text
+                .append(plan.getName()).append(".ms=")
+                .append(String.format(Locale.ROOT, "%.3f", plan.getExecutionMillis())).append('\n'));
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Files.writeString(file, text, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Записывает текущие планы как эталоны: полные просмотры становятся разрешёнными, время — эталонным
+     */
+    @SneakyThrows
+    public static void write(Path file, String backend, Collection<QueryPlan> plans) {
+        StringBuilder text = new StringBuilder("# Эталоны планов запросов для " + backend
+                + ": ./gradlew planTest -Dplans.updateBaseline=true\n");
+        plans.stream().sorted(Comparator.comparing(QueryPlan::getName)).forEach(plan -> text
+                .append(plan.getName()).append(".allowFullScan=").append(String.join(",", plan.getFullScans())).append('\n')
+                .append(plan.getName()).append(".ms=")
+                .append(String.format(Locale.ROOT, "%.3f", plan.getExecutionMillis())).append('\n'));
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Files.writeString(file, text, StandardCharsets.UTF_8);
+    }
+}
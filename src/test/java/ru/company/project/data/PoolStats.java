@@ -0,0 +1,40 @@
+package ru.company.project.data;
+
+import lombok.Value;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Снимок метрик {@link ConnectionPool} на момент вызова {@link ConnectionPool#getStats()}.
+ */
+@Value
+public class PoolStats {
+    /** Максимальный размер пула */
+    int maxSize;
+    /** Соединения, выданные и ещё не возвращённые */
+    int active;
+    /** Свободные соединения в пуле */
+    int idle;
+    /** Общее число выдач */
+    long borrowCount;
+    /** Среднее ожидание свободного соединения, нс */
+    long avgBorrowWaitNanos;
+    /** Максимальное ожидание свободного соединения, нс */
+    long maxBorrowWaitNanos;
+    /** Сколько физических соединений было открыто */
+    long created;
+    /** Сколько соединений закрыто по таймауту простоя */
+    long evicted;
+    /** Сколько соединений не прошло проверку при выдаче */
+    long invalidated;
+
+    @Override
+    public String toString() {
+        return String.format(
+                "active=%d, idle=%d, max=%d, borrows=%d, avgWait=%.3f ms, maxWait=%.3f ms, created=%d, evicted=%d, invalidated=%d",
+                active, idle, maxSize, borrowCount,
+                avgBorrowWaitNanos / (double) TimeUnit.MILLISECONDS.toNanos(1),
+                maxBorrowWaitNanos / (double) TimeUnit.MILLISECONDS.toNanos(1),
+                created, evicted, invalidated);
+    }
+}
@@ -0,0 +1,56 @@
+package ru.company.project.data;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static ru.company.project.data.DBHelper.CREDIT_TABLE;
+import static ru.company.project.data.DBHelper.PAYMENT_TABLE;
+
+/**
+ * Запросы к таблицам приложения, которые проверяет набор регрессии планов: чтения {@link DBHelper}
+ * и {@link OrderReconciler} (тексты берутся из них же, чтобы не расходиться с кодом) и вставки,
+ * которыми приложение записывает результат покупки.
+ */
+public class QueryCatalog {
+
+    public static List<TrackedQuery> all() {
+        List<Object> snapshotParams = new ArrayList<>();
+        String snapshot = DBHelper.snapshotQuery(null, snapshotParams);
+        List<String> operationIds = List.of(sampleId(), sampleId(), sampleId());
+        List<Object> scopeIds = new ArrayList<>(operationIds);
+        List<Object> scopedOrderParams = new ArrayList<>();
+        String scopedOrderCount = DBHelper.scopedOrderCountQuery(operationIds, scopedOrderParams);
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        String transactionId = sampleId();
+        String bankId = sampleId();
+        return List.of(
+                new TrackedQuery("latestPaymentStatus", DBHelper.LATEST_PAYMENT_STATUS, List.of(), false),
+                new TrackedQuery("latestCreditStatus", DBHelper.LATEST_CREDIT_STATUS, List.of(), false),
+                new TrackedQuery("orderCount", DBHelper.ORDER_COUNT, List.of(), false),
+                new TrackedQuery("snapshot", snapshot, snapshotParams, false),
+                new TrackedQuery("scopedPaymentStatus",
+                        DBHelper.latestStatusQuery(PAYMENT_TABLE, scopeIds.size()), scopeIds, false),
+                new TrackedQuery("scopedCreditStatus",
+                        DBHelper.latestStatusQuery(CREDIT_TABLE, scopeIds.size()), scopeIds, false),
+                new TrackedQuery("scopedOrderCount", scopedOrderCount, scopedOrderParams, false),
+                new TrackedQuery("reconcileOperations", OrderReconciler.OPERATIONS, List.of(), false),
+                new TrackedQuery("reconcileOrders", OrderReconciler.ORDERS, List.of(), false),
+                new TrackedQuery("insertPayment",
+                        "INSERT INTO payment_entity (id, amount, created, status, transaction_id) VALUES (?, ?, ?, ?, ?)",
+                        List.of(sampleId(), 4_500_000, now, CardTestData.STATUS_APPROVED, transactionId), true),
+                new TrackedQuery("insertCredit",
+                        "INSERT INTO credit_request_entity (id, bank_id, created, status) VALUES (?, ?, ?, ?)",
+                        List.of(sampleId(), bankId, now, CardTestData.STATUS_APPROVED), true),
+                new TrackedQuery("insertOrder",
+                        "INSERT INTO order_entity (id, created, credit_id, payment_id) VALUES (?, ?, ?, ?)",
+                        Arrays.asList(sampleId(), now, null, transactionId), true)
+        );
+    }
+
+    private static String sampleId() {
+        return UUID.randomUUID().toString();
+    }
+}
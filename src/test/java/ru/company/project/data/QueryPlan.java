@@ -0,0 +1,27 @@
+package ru.company.project.data;
+
+import lombok.Value;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * План и время выполнения запроса на текущей СУБД ({@link QueryPlanInspector})
+ */
+@Value
+public class QueryPlan {
+    String name;
+    /** Таблицы, читаемые полным просмотром (MySQL access_type ALL, PostgreSQL Seq Scan) */
+    List<String> fullScans;
+    /** Использованные индексы */
+    List<String> indexes;
+    /** Медиана времени выполнения, мс */
+    double executionMillis;
+    /** План в JSON, как его вернула СУБД */
+    String plan;
+
+    public String summary() {
+        return String.format(Locale.ROOT, "%s: %.3f ms, full scans=%s, indexes=%s",
+                name, executionMillis, fullScans, indexes);
+    }
+}
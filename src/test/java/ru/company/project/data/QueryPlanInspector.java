@@ -0,0 +1,130 @@
+package ru.company.project.data;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Снимает план запроса и время его выполнения на текущей СУБД.
+ *
+ * <ul>
+ *   <li>MySQL: план — {@code EXPLAIN FORMAT=JSON}, полный просмотр — таблица с {@code access_type = ALL};
+ *   время — медиана выполнений самого запроса (EXPLAIN ANALYZE в MySQL не поддерживает JSON и вставки);</li>
+ *   <li>PostgreSQL: {@code EXPLAIN (ANALYZE, FORMAT JSON)}, полный просмотр — узел {@code Seq Scan};
+ *   время — медиана {@code Execution Time}.</li>
+ * </ul>
+ *
+ * <p>Всё выполняется в одной транзакции, которая откатывается после каждого выполнения:
+ * вставки (и EXPLAIN ANALYZE вставок) не оставляют строк.</p>
+ */
+public class QueryPlanInspector {
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    /**
+     * @param runs число выполнений для медианы времени
+     */
+    @SneakyThrows
+    public static QueryPlan inspect(TrackedQuery query, int runs) {
+        boolean postgres = WorkerDatabase.getUrl().startsWith("jdbc:postgresql:");
+        try (Connection conn = DBHelper.getConnection()) {
+            conn.setAutoCommit(false);
+            String explain = postgres ? "EXPLAIN (ANALYZE, FORMAT JSON) " : "EXPLAIN FORMAT=JSON ";
+            JsonNode plan = mapper.readTree(firstColumn(conn, explain + query.getSql(), query));
+            conn.rollback();
+
+            Set<String> fullScans = new LinkedHashSet<>();
+            Set<String> indexes = new LinkedHashSet<>();
+            if (postgres) {
+                collectPostgres(plan.path(0).path("Plan"), fullScans, indexes);
+            } else {
+                collectMySql(plan, fullScans, indexes);
+            }
+
+            double[] millis = new double[Math.max(1, runs)];
+            for (int i = 0; i < millis.length; i++) {
+                millis[i] = postgres
+                        ? mapper.readTree(firstColumn(conn, explain + query.getSql(), query))
+                        .path(0).path("Execution Time").asDouble()
+                        : executionMillis(conn, query);
+                conn.rollback();
+            }
+            Arrays.sort(millis);
+            return new QueryPlan(query.getName(), new ArrayList<>(fullScans), new ArrayList<>(indexes),
+                    millis[millis.length / 2], mapper.writerWithDefaultPrettyPrinter().writeValueAsString(plan));
+        }
+    }
+
+    private static String firstColumn(Connection conn, String sql, TrackedQuery query) throws SQLException {
+        try (PreparedStatement statement = prepare(conn, sql, query);
+             ResultSet rs = statement.executeQuery()) {
+            rs.next();
+            return rs.getString(1);
+        }
+    }
+
+    private static double executionMillis(Connection conn, TrackedQuery query) throws SQLException {
+        try (PreparedStatement statement = prepare(conn, query.getSql(), query)) {
+            long start = System.nanoTime();
+            if (statement.execute()) {
+                try (ResultSet rs = statement.getResultSet()) {
+                    while (rs.next()) {
+                        // Время включает чтение всего результата
+                    }
+                }
+            }
+            return (System.nanoTime() - start) / 1e6;
+        }
+    }
+
+    private static PreparedStatement prepare(Connection conn, String sql, TrackedQuery query) throws SQLException {
+        PreparedStatement statement = conn.prepareStatement(sql);
+        for (int i = 0; i < query.getParams().size(); i++) {
+            statement.setObject(i + 1, query.getParams().get(i));
+        }
+        return statement;
+    }
+
+    /**
+     * Обходит план MySQL: узлы таблиц — объекты с {@code table_name} и {@code access_type}
+     * на любой глубине (вложенные циклы, подзапросы в списке выборки)
+     */
+    private static void collectMySql(JsonNode node, Set<String> fullScans, Set<String> indexes) {
+        if (node.isObject() && node.has("table_name") && node.has("access_type")
+                && !node.path("insert").asBoolean()) {
+            if ("ALL".equals(node.get("access_type").asText())) {
+                fullScans.add(node.get("table_name").asText());
+            }
+            if (node.has("key")) {
+                indexes.add(node.get("key").asText());
+            }
+        }
+        for (Iterator<JsonNode> children = node.elements(); children.hasNext(); ) {
+            collectMySql(children.next(), fullScans, indexes);
+        }
+    }
+
+    /**
+     * Обходит дерево узлов плана PostgreSQL (поле {@code Plans} — дочерние узлы, включая подпланы)
+     */
+    private static void collectPostgres(JsonNode node, Set<String> fullScans, Set<String> indexes) {
+        if ("Seq Scan".equals(node.path("Node Type").asText())) {
+            fullScans.add(node.path("Relation Name").asText());
+        }
+        if (node.has("Index Name")) {
+            indexes.add(node.get("Index Name").asText());
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectPostgres(child, fullScans, indexes);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package ru.company.project.data;
+
+import lombok.Value;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Итог наполнения БД ({@link FixtureSeeder#seed(long)})
+ */
+@Value
+public class SeedResult {
+    /** Покупок, то есть пар "операция + заказ" */
+    long purchases;
+    /** Строк во всех таблицах */
+    long rows;
+    long elapsedNanos;
+
+    /**
+     * Скорость загрузки, строк в секунду
+     */
+    public double getRowsPerSecond() {
+        return elapsedNanos <= 0 ? 0 : rows * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    public String summary() {
+        return String.format(Locale.ROOT, "%d purchases, %d rows in %.1f s (%.0f rows/s)",
+                purchases, rows, elapsedNanos / 1e9, getRowsPerSecond());
+    }
+}
@@ -0,0 +1,297 @@
+package ru.company.project.data;
+
+import io.qameta.allure.Allure;
+import lombok.SneakyThrows;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import ru.company.project.profiling.PhaseProfiler;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+import static ru.company.project.data.DBHelper.CREDIT_TABLE;
+import static ru.company.project.data.DBHelper.ORDER_TABLE;
+import static ru.company.project.data.DBHelper.PAYMENT_TABLE;
+
+/**
+ * Ожидание строки, которую приложение записывает в БД асинхронно, — вместо пауз и длинных таймаутов.
+ *
+ * <p>Ожидающие тесты не опрашивают БД сами. Общий фоновый поток раз в такт выполняет один запрос
+ * {@code MAX(created)} по всем таблицам и при изменении таблицы будит только ждущих её тестов; разбуженный
+ * тест один раз читает свою строку. В режиме изоляции чтение идёт по id операции банка ({@link DataScope}),
+ * который известен ещё до записи, поэтому строка, записанная после ответа приложения, находится на
+ * ближайшем пробуждении. Интервал такта растёт экспоненциально от
+ * {@code status.await.minIntervalMs} (10) до {@code status.await.maxIntervalMs} (250), пока ничего
+ * не меняется, сбрасывается при изменении и случайно укорачивается (jitter), чтобы форки не опрашивали
+ * БД синхронно.</p>
+ *
+ * <p>На PostgreSQL с отдельной базой на форк ({@link WorkerDatabase}) при {@code status.await.notify=true}
+ * на таблицы ставится триггер с {@code pg_notify}, и фоновый поток вместо опроса ждёт уведомлений
+ * {@code LISTEN} — тесты просыпаются сразу после фиксации вставки. Триггер исчезает вместе с базой
+ * форка и не остаётся в общей базе приложения. Если триггер установить не удалось, ожидание
+ * возвращается к опросу, а причина прикладывается к отчёту Allure ближайшего ожидающего теста.</p>
+ */
+public class StatusAwaiter {
+    private static final long timeoutMs = Long.getLong("status.await.timeoutMs", 10_000);
+    private static final long minIntervalMs = Long.getLong("status.await.minIntervalMs", 10);
+    private static final long maxIntervalMs = Long.getLong("status.await.maxIntervalMs", 250);
+    private static final boolean notifyRequested = Boolean.getBoolean("status.await.notify");
+    /** Страховочная перепроверка, если изменение таблицы не было замечено */
+    private static final long RECHECK_MS = 1_000;
+    private static final String CHANNEL = "aqa_row_inserted";
+    private static final List<String> TABLES = List.of(PAYMENT_TABLE, CREDIT_TABLE, ORDER_TABLE);
+
+    private static final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+    private static final AtomicReference<String> listenFailure = new AtomicReference<>();
+    private static final Object monitor = new Object();
+    private static int waiters;
+    private static Thread watcher;
+
+    /**
+     * Ждёт платёж текущего теста и возвращает его статус (null, если строка так и не появилась)
+     */
+    public static String awaitPaymentStatus() {
+        return await(PAYMENT_TABLE, DBHelper::getPaymentStatus);
+    }
+
+    /**
+     * Ждёт кредитную заявку текущего теста и возвращает её статус (null, если строка так и не появилась)
+     */
+    public static String awaitCreditStatus() {
+        return await(CREDIT_TABLE, DBHelper::getCreditStatus);
+    }
+
+    /**
+     * Ждёт, пока приложение перестанет записывать в таблицы: в течение {@code quietMs} не замечено ни одной
+     * вставки. Нужен проверкам, которые читают таблицы целиком после массовой отправки, — ответ приложения
+     * не означает, что строка уже записана.
+     *
+     * @return true, если записи затихли; false, если вставки продолжались все {@code status.await.timeoutMs}
+     */
+    @SneakyThrows
+    public static boolean awaitQuiescence(long quietMs) {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        PhaseProfiler.begin("Ожидание завершения записи в БД");
+        try {
+            reportListenFailure();
+            while (true) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining < quietMs) {
+                    return false;
+                }
+                if (!awaitChange(StatusAwaiter::totalGeneration, totalGeneration(), quietMs)) {
+                    return true;
+                }
+            }
+        } finally {
+            PhaseProfiler.end();
+        }
+    }
+
+    @SneakyThrows
+    private static String await(String table, Callable<String> reader) {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        PhaseProfiler.begin("Ожидание строки " + table);
+        try {
+            reportListenFailure();
+            while (true) {
+                long generation = generation(table).get();
+                String status = reader.call();
+                long remaining = deadline - System.currentTimeMillis();
+                if (status != null || remaining <= 0) {
+                    return status;
+                }
+                awaitChange(() -> generation(table).get(), generation, Math.min(remaining, RECHECK_MS));
+            }
+        } finally {
+            PhaseProfiler.end();
+        }
+    }
+
+    /**
+     * Фоновый поток не работает в контексте теста, поэтому причину отказа от LISTEN/NOTIFY
+     * прикладывает к отчёту первый ожидающий тест
+     */
+    private static void reportListenFailure() {
+        String failure = listenFailure.getAndSet(null);
+        if (failure != null) {
+            Allure.addAttachment("LISTEN/NOTIFY недоступен, ожидание статусов переходит на опрос", "text/plain", failure);
+        }
+    }
+
+    private static AtomicLong generation(String table) {
+        return generations.computeIfAbsent(table, key -> new AtomicLong());
+    }
+
+    /**
+     * Сумма поколений всех таблиц: счётчики только растут, поэтому сумма меняется при изменении любой таблицы
+     */
+    private static long totalGeneration() {
+        return TABLES.stream().mapToLong(table -> generation(table).get()).sum();
+    }
+
+    /**
+     * Ждёт, пока поколение изменится относительно {@code seen}, не дольше {@code waitMs}
+     *
+     * @return true, если изменение замечено
+     */
+    private static boolean awaitChange(LongSupplier generation, long seen, long waitMs) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + waitMs;
+        synchronized (monitor) {
+            waiters++;
+            if (watcher == null) {
+                watcher = new Thread(StatusAwaiter::watch, "db-status-watcher");
+                watcher.setDaemon(true);
+                watcher.start();
+            }
+            monitor.notifyAll();
+            try {
+                long remaining;
+                while (generation.getAsLong() == seen
+                        && (remaining = deadline - System.currentTimeMillis()) > 0) {
+                    monitor.wait(remaining);
+                }
+                return generation.getAsLong() != seen;
+            } finally {
+                waiters--;
+            }
+        }
+    }
+
+    /**
+     * Будит тестов, ждущих вставки в указанные таблицы
+     */
+    private static void signal(Collection<String> tables) {
+        synchronized (monitor) {
+            tables.forEach(table -> generation(table).incrementAndGet());
+            monitor.notifyAll();
+        }
+    }
+
+    private static void watch() {
+        if (notifyRequested && WorkerDatabase.isEnabled() && WorkerDatabase.getUrl().startsWith("jdbc:postgresql:")) {
+            try {
+                listen();
+            } catch (SQLException | RuntimeException e) {
+                listenFailure.set(String.valueOf(e));
+            }
+        }
+        poll();
+    }
+
+    /**
+     * Опрос: один запрос на такт для всех ждущих тестов, пока они есть
+     */
+    @SneakyThrows
+    private static void poll() {
+        long[] last = null;
+        long interval = minIntervalMs;
+        while (true) {
+            synchronized (monitor) {
+                if (waiters == 0) {
+                    // Пока никто не ждёт, точка отсчёта устаревает: первый такт после простоя будит всех
+                    last = null;
+                    interval = minIntervalMs;
+                    while (waiters == 0) {
+                        monitor.wait();
+                    }
+                }
+            }
+            try {
+                long[] current = readLatestInserts();
+                List<String> changed = changedTables(last, current);
+                last = current;
+                if (!changed.isEmpty()) {
+                    signal(changed);
+                    interval = minIntervalMs;
+                } else {
+                    interval = Math.min(maxIntervalMs, interval * 2);
+                }
+            } catch (Exception e) {
+                // Сбой запроса не должен останавливать ожидание других тестов: повтор на следующем такте
+                interval = maxIntervalMs;
+            }
+            Thread.sleep(ThreadLocalRandom.current().nextLong(interval / 2, interval + 1));
+        }
+    }
+
+    @SneakyThrows
+    private static long[] readLatestInserts() {
+        StringBuilder query = new StringBuilder("SELECT ");
+        for (int i = 0; i < TABLES.size(); i++) {
+            query.append(i == 0 ? "" : ", ").append("(SELECT MAX(created) FROM ").append(TABLES.get(i)).append(')');
+        }
+        try (Connection conn = DBHelper.getConnection();
+             Statement statement = conn.createStatement();
+             ResultSet rs = statement.executeQuery(query.toString())) {
+            rs.next();
+            long[] values = new long[TABLES.size()];
+            for (int i = 0; i < values.length; i++) {
+                Timestamp latest = rs.getTimestamp(i + 1);
+                values[i] = latest == null ? 0 : latest.getTime();
+            }
+            return values;
+        }
+    }
+
+    /**
+     * Таблицы, время последней вставки в которые изменилось (без прошлого такта — все)
+     */
+    private static List<String> changedTables(long[] last, long[] current) {
+        List<String> changed = new ArrayList<>();
+        for (int i = 0; i < current.length; i++) {
+            if (last == null || last[i] != current[i]) {
+                changed.add(TABLES.get(i));
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Ожидание уведомлений PostgreSQL на отдельном соединении вне пула. Возвращается только при ошибке.
+     */
+    private static void listen() throws SQLException {
+        try (Connection conn = DriverManager.getConnection(WorkerDatabase.getUrl(),
+                System.getProperty("db.user"), System.getProperty("db.pass"))) {
+            try (Statement statement = conn.createStatement()) {
+                statement.execute("CREATE OR REPLACE FUNCTION " + CHANNEL + "() RETURNS trigger AS $$"
+                        + " BEGIN PERFORM pg_notify('" + CHANNEL + "', TG_TABLE_NAME); RETURN NEW; END"
+                        + " $$ LANGUAGE plpgsql");
+                for (String table : TABLES) {
+                    statement.execute("DROP TRIGGER IF EXISTS " + CHANNEL + " ON " + table);
+                    statement.execute("CREATE TRIGGER " + CHANNEL + " AFTER INSERT ON " + table
+                            + " FOR EACH ROW EXECUTE PROCEDURE " + CHANNEL + "()");
+                }
+                statement.execute("LISTEN " + CHANNEL);
+            }
+            // Вставки до LISTEN не дали уведомлений — ждущие тесты перепроверяют свои строки
+            signal(TABLES);
+            PGConnection pg = conn.unwrap(PGConnection.class);
+            while (true) {
+                PGNotification[] notifications = pg.getNotifications(0);
+                if (notifications == null) {
+                    continue;
+                }
+                List<String> tables = new ArrayList<>();
+                for (PGNotification notification : notifications) {
+                    tables.add(notification.getParameter());
+                }
+                signal(tables);
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package ru.company.project.data;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Запрос, план и время выполнения которого отслеживаются ({@link QueryCatalog})
+ */
+@Value
+public class TrackedQuery {
+    /** Имя для отчёта и ключ в файле эталонов */
+    String name;
+    String sql;
+    List<Object> params;
+    /** Запрос изменяет данные: выполняется только внутри откатываемой транзакции */
+    boolean write;
+}
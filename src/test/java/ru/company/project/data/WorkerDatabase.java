@@ -0,0 +1,121 @@
+package ru.company.project.data;
+
+import lombok.SneakyThrows;
+import org.apache.commons.dbutils.QueryRunner;
+import org.apache.commons.dbutils.handlers.ColumnListHandler;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Отдельная база данных для каждого форка Gradle ({@code maxParallelForks}).
+ *
+ * <p>При {@code db.perWorker=true} к имени базы из {@code db.url} добавляется номер воркера
+ * Gradle ({@code org.gradle.test.worker}), и база создаётся копированием шаблона:</p>
+ * <ul>
+ *   <li>PostgreSQL: {@code CREATE DATABASE app_w3 TEMPLATE app} (шаблон не должен иметь активных подключений)</li>
+ *   <li>MySQL: {@code CREATE DATABASE app_w3} и {@code CREATE TABLE ... LIKE} для каждой таблицы шаблона</li>
+ * </ul>
+ *
+ * <p>Для создания баз используются учётные данные db.admin.user/db.admin.pass
+ * (по умолчанию — db.user/db.pass). База удаляется при завершении JVM.</p>
+ */
+public class WorkerDatabase {
+    private static final boolean enabled = Boolean.getBoolean("db.perWorker");
+    private static final QueryRunner runner = new QueryRunner();
+    private static String resolvedUrl;
+
+    /**
+     * Включён ли режим отдельной базы на воркер
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Возвращает JDBC URL базы текущего форка, при первом обращении создавая её из шаблона.
+     * Если режим выключен, возвращает db.url без изменений.
+     */
+    public static synchronized String getUrl() {
+        if (resolvedUrl == null) {
+            String templateUrl = System.getProperty("db.url");
+            resolvedUrl = enabled ? provision(templateUrl) : templateUrl;
+        }
+        return resolvedUrl;
+    }
+
+    /**
+     * СУБД из адреса базы: jdbc:mysql:... → mysql, jdbc:postgresql:... → postgresql
+     */
+    public static String getBackend() {
+        String url = getUrl();
+        return url.startsWith("jdbc:") ? url.substring(5, url.indexOf(':', 5)) : "db";
+    }
+
+    @SneakyThrows
+    private static String provision(String templateUrl) {
+        String template = databaseName(templateUrl);
+        String worker = System.getProperty("org.gradle.test.worker", "0");
+        String database = template + "_w" + worker;
+        boolean postgres = templateUrl.startsWith("jdbc:postgresql:");
+
+        try (Connection admin = openAdmin(withDatabase(templateUrl, postgres ? "postgres" : ""))) {
+            if (postgres) {
+                runner.execute(admin, "DROP DATABASE IF EXISTS " + database);
+                runner.execute(admin, "CREATE DATABASE " + database + " TEMPLATE " + template);
+            } else {
+                runner.execute(admin, "DROP DATABASE IF EXISTS " + database);
+                runner.execute(admin, "CREATE DATABASE " + database);
+                List<String> tables = runner.query(admin,
+                        "SELECT table_name FROM information_schema.tables WHERE table_schema = ? AND table_type = 'BASE TABLE'",
+                        new ColumnListHandler<String>(1), template);
+                for (String table : tables) {
+                    runner.execute(admin, "CREATE TABLE " + database + "." + table + " LIKE " + template + "." + table);
+                }
+                runner.execute(admin, "GRANT ALL PRIVILEGES ON " + database + ".* TO '" + System.getProperty("db.user") + "'@'%'");
+            }
+        }
+
+        Runtime.getRuntime().addShutdownHook(new Thread(
+                () -> drop(templateUrl, database, postgres), "worker-db-drop"));
+        return withDatabase(templateUrl, database);
+    }
+
+    private static void drop(String templateUrl, String database, boolean postgres) {
+        try (Connection admin = openAdmin(withDatabase(templateUrl, postgres ? "postgres" : ""))) {
+            // WITH (FORCE) закрывает подключения приложения, которое могло ещё не завершиться
+            runner.execute(admin, "DROP DATABASE IF EXISTS " + database + (postgres ? " WITH (FORCE)" : ""));
+        } catch (SQLException ignored) {
+            // Оставшаяся база будет пересоздана при следующем запуске этого воркера
+        }
+    }
+
+    private static Connection openAdmin(String url) throws SQLException {
+        return DriverManager.getConnection(url,
+                System.getProperty("db.admin.user", System.getProperty("db.user")),
+                System.getProperty("db.admin.pass", System.getProperty("db.pass")));
+    }
+
+    /**
+     * Имя базы из JDBC URL: последний сегмент пути до параметров
+     */
+    static String databaseName(String url) {
+        String base = stripParams(url);
+        return base.substring(base.lastIndexOf('/') + 1);
+    }
+
+    /**
+     * Подменяет имя базы в JDBC URL, сохраняя параметры подключения
+     */
+    static String withDatabase(String url, String database) {
+        String base = stripParams(url);
+        return base.substring(0, base.lastIndexOf('/') + 1) + database + url.substring(base.length());
+    }
+
+    private static String stripParams(String url) {
+        int params = url.indexOf('?');
+        return params < 0 ? url : url.substring(0, params);
+    }
+}
@@ -0,0 +1,62 @@
+package ru.company.project.gate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+
+/**
+ * Генератор файла {@link CardStatusIndex} с синтетическими картами для нагрузочных прогонов симулятора.
+ *
+ * <p>В индекс всегда попадают тестовые карты из {@code data.json}
+ * (4444 4444 4444 4441 — APPROVED, 4444 4444 4444 4442 — DECLINED), поэтому UI- и API-тесты
+ * работают с ним без изменений. Остальные номера — случайные 16-значные с префиксом 4,
+ * генерация детерминирована по seed.</p>
+ *
+ * <p>Запуск: {@code ./gradlew generateCardFixture -Pcards=10000000 -PapprovedRatio=0.8 -Pseed=42}</p>
+ */
+public class CardFixtureGenerator {
+    private static final long APPROVED_CARD = 4444_4444_4444_4441L;
+    private static final long DECLINED_CARD = 4444_4444_4444_4442L;
+    private static final long FIRST_CARD = 4000_0000_0000_0000L;
+    private static final long CARD_RANGE = 1000_0000_0000_0000L;
+
+    /**
+     * Создаёт индекс из {@code cards} карт.
+     *
+     * @param file          файл индекса
+     * @param cards         число карт, включая две тестовые
+     * @param approvedRatio доля APPROVED-карт среди синтетических
+     * @param seed          seed генератора номеров
+     */
+    public static void generate(Path file, long cards, double approvedRatio, long seed) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+        try (CardStatusIndex index = CardStatusIndex.create(file, cards)) {
+            index.put(APPROVED_CARD, true);
+            index.put(DECLINED_CARD, false);
+            while (index.size() < cards) {
+                long number = FIRST_CARD + random.nextLong(CARD_RANGE);
+                index.put(number, random.nextDouble() < approvedRatio);
+            }
+        }
+    }
+
+    /**
+     * Аргументы: файл, число карт, [доля APPROVED = 0.5], [seed = 42]
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: CardFixtureGenerator <file> <cards> [approvedRatio] [seed]");
+            System.exit(2);
+        }
+        Path file = Paths.get(args[0]);
+        long cards = Long.parseLong(args[1]);
+        double approvedRatio = args.length > 2 ? Double.parseDouble(args[2]) : 0.5;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 42;
+
+        long start = System.nanoTime();
+        generate(file, cards, approvedRatio, seed);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Записано %d карт в %s за %.1f с (%.0f карт/с)%n", cards, file, seconds, cards / seconds);
+    }
+}
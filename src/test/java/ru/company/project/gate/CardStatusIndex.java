@@ -0,0 +1,206 @@
+package ru.company.project.gate;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Индекс статусов карт в отображаемом в память файле — для симулятора банка с миллионами карт.
+ *
+ * <p>Номер карты (16 цифр) хранится как примитивный {@code long} в хеш-таблице с открытой адресацией
+ * (линейное пробирование), статус — одним битом в битовой маске рядом с таблицей. Поиск — O(1)
+ * без аллокаций, данные читаются напрямую из файла через page cache.</p>
+ *
+ * <p>Формат файла (little-endian):</p>
+ * <pre>
+ * int    magic     "CSI1"
+ * int    reserved
+ * long   capacity  число слотов, степень двойки
+ * long   count     число карт
+ * long[] keys      capacity слотов: номер карты + 1, 0 — пустой слот
+ * long[] approved  capacity бит: 1 — APPROVED, 0 — DECLINED
+ * </pre>
+ *
+ * <p>При заполнении не более {@value #MAX_LOAD_FACTOR} на карту приходится 12–23 байта.
+ * Файл отображается одним буфером (до 2 ГБ), поэтому таблица не больше {@value #MAX_CAPACITY} слотов (2^27),
+ * то есть не более {@value #MAX_CARDS} карт (≈ 94 млн) в одном файле.</p>
+ */
+public class CardStatusIndex implements CardStatusStore, AutoCloseable {
+    private static final int MAGIC = 0x43534931;
+    private static final int HEADER_BYTES = 24;
+    private static final double MAX_LOAD_FACTOR = 0.7;
+    /** Наибольшая степень двойки слотов, при которой ключи и битовая маска помещаются в один MappedByteBuffer */
+    private static final long MAX_CAPACITY = 1L << 27;
+    private static final long MAX_CARDS = (long) (MAX_CAPACITY * MAX_LOAD_FACTOR);
+    private static final String APPROVED = "APPROVED";
+    private static final String DECLINED = "DECLINED";
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final long capacity;
+    private final long mask;
+    private final int statusOffset;
+    private final boolean writable;
+    private long count;
+
+    private CardStatusIndex(FileChannel channel, MappedByteBuffer buffer, boolean writable) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.writable = writable;
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Файл не является индексом статусов карт");
+        }
+        this.capacity = buffer.getLong(8);
+        this.count = buffer.getLong(16);
+        this.mask = capacity - 1;
+        this.statusOffset = HEADER_BYTES + (int) (capacity * Long.BYTES);
+    }
+
+    /**
+     * Открывает существующий индекс только для чтения
+     */
+    public static CardStatusIndex open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        return new CardStatusIndex(channel, buffer, false);
+    }
+
+    /**
+     * Создаёт пустой индекс, рассчитанный на {@code expectedCards} карт, для заполнения через {@link #put}
+     */
+    public static CardStatusIndex create(Path file, long expectedCards) throws IOException {
+        long capacity = Long.highestOneBit(Math.max(16, (long) Math.ceil(expectedCards / MAX_LOAD_FACTOR)) - 1) << 1;
+        if (capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Слишком много карт для одного файла: " + expectedCards
+                    + ", не более " + MAX_CARDS);
+        }
+        long size = HEADER_BYTES + capacity * Long.BYTES + capacity / Byte.SIZE;
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(0, MAGIC);
+        buffer.putLong(8, capacity);
+        buffer.putLong(16, 0);
+        return new CardStatusIndex(channel, buffer, true);
+    }
+
+    /**
+     * Добавляет карту или обновляет её статус.
+     *
+     * @return true, если карта добавлена впервые
+     */
+    public boolean put(long number, boolean approved) {
+        if (!writable) {
+            throw new IllegalStateException("Индекс открыт только для чтения");
+        }
+        long key = number + 1;
+        long slot = mix(key) & mask;
+        while (true) {
+            long existing = keyAt(slot);
+            if (existing == 0) {
+                if (count + 1 > capacity * MAX_LOAD_FACTOR) {
+                    throw new IllegalStateException("Индекс заполнен: " + count + " карт");
+                }
+                buffer.putLong(HEADER_BYTES + (int) (slot * Long.BYTES), key);
+                setApproved(slot, approved);
+                buffer.putLong(16, ++count);
+                return true;
+            }
+            if (existing == key) {
+                setApproved(slot, approved);
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    @Override
+    public String statusOf(String number) {
+        long parsed = parse(number);
+        if (parsed < 0) {
+            return null;
+        }
+        long key = parsed + 1;
+        long slot = mix(key) & mask;
+        while (true) {
+            long existing = keyAt(slot);
+            if (existing == 0) {
+                return null;
+            }
+            if (existing == key) {
+                return isApproved(slot) ? APPROVED : DECLINED;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Число карт в индексе
+     */
+    public long size() {
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (writable) {
+            buffer.force();
+        }
+        channel.close();
+    }
+
+    /**
+     * Разбирает номер карты "4444 4444 4444 4441" (пробелы допускаются) в число.
+     *
+     * @return номер или -1, если строка не является 16-значным номером
+     */
+    public static long parse(String number) {
+        long value = 0;
+        int digits = 0;
+        for (int i = 0; i < number.length(); i++) {
+            char c = number.charAt(i);
+            if (c == ' ') {
+                continue;
+            }
+            if (c < '0' || c > '9' || ++digits > 16) {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return digits == 16 ? value : -1;
+    }
+
+    private long keyAt(long slot) {
+        return buffer.getLong(HEADER_BYTES + (int) (slot * Long.BYTES));
+    }
+
+    private boolean isApproved(long slot) {
+        int offset = statusOffset + (int) (slot >>> 3);
+        return (buffer.get(offset) & (1 << (slot & 7))) != 0;
+    }
+
+    private void setApproved(long slot, boolean approved) {
+        int offset = statusOffset + (int) (slot >>> 3);
+        byte bits = buffer.get(offset);
+        int bit = 1 << (slot & 7);
+        buffer.put(offset, (byte) (approved ? bits | bit : bits & ~bit));
+    }
+
+    /**
+     * Финализатор MurmurHash3: номера карт идут плотными диапазонами, без перемешивания
+     * линейное пробирование образовало бы длинные кластеры
+     */
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+}
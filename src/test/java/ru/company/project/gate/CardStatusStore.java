@@ -0,0 +1,15 @@
+package ru.company.project.gate;
+
+/**
+ * Источник статусов карт для симулятора банка.
+ */
+@FunctionalInterface
+public interface CardStatusStore {
+
+    /**
+     * Возвращает статус карты ("APPROVED"/"DECLINED") или null, если карта неизвестна банку
+     *
+     * @param number номер карты в формате запроса ("4444 4444 4444 4441")
+     */
+    String statusOf(String number);
+}
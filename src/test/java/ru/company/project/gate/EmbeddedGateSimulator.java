@@ -0,0 +1,195 @@
+package ru.company.project.gate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.SneakyThrows;
+import ru.company.project.data.DataScope;
+import ru.company.project.data.WorkerDatabase;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Встроенный в JVM тестов симулятор банка — замена контейнеру {@code gate-simulator/app.js}.
+ *
+ * <p>Контракт совпадает с Node-симулятором: {@code POST /payment} и {@code POST /credit}
+ * с телом {@code {"number": "..."}} отвечают {@code 200 {"id": uuid, "status": ...}}
+ * для известной карты и {@code 400} для неизвестной.</p>
+ *
+ * <p>Для каждого маршрута настраиваются задержка, доля ошибок и доля "зависших" запросов
+ * ({@link #payment()}, {@link #credit()}), что позволяет проверять поведение приложения
+ * при медленном или сбоящем банке. Запускается за миллисекунды на {@link HttpServer} из JDK.</p>
+ *
+ * <p>Выданный id операции сообщается {@link DataScope}: в режиме {@code db.isolation=scoped} по нему
+ * строки приложения закрепляются за отправившим форму тестом.</p>
+ *
+ * <p>Включается свойством {@code gate.embedded=true}; порт — {@code gate.port} (по умолчанию 9999,
+ * именно его ждёт приложение согласно application.properties; в режиме {@code db.perWorker} — свободный порт,
+ * который передаётся запускаемому форком приложению).</p>
+ */
+public class EmbeddedGateSimulator implements AutoCloseable {
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static EmbeddedGateSimulator shared;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final CardStatusStore cards;
+    private final RouteFaults paymentFaults = new RouteFaults();
+    private final RouteFaults creditFaults = new RouteFaults();
+
+    /**
+     * Запускает симулятор на указанном порту (0 — любой свободный)
+     *
+     * @param port  порт
+     * @param cards источник статусов карт
+     */
+    public EmbeddedGateSimulator(int port, CardStatusStore cards) throws IOException {
+        this.cards = cards;
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        // Обработчики засыпают на время инжектируемой задержки, поэтому пул не ограничен
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "gate-simulator-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/payment", exchange -> handle(exchange, paymentFaults, false));
+        server.createContext("/credit", exchange -> handle(exchange, creditFaults, true));
+        server.start();
+    }
+
+    /**
+     * Возвращает общий для JVM симулятор, запуская его при первом вызове, если {@code gate.embedded=true}.
+     *
+     * @return базовый URL симулятора или значение {@code gate.url}, если встроенный симулятор выключен
+     */
+    @SneakyThrows
+    public static synchronized String ensureStarted() {
+        if (!Boolean.getBoolean("gate.embedded")) {
+            return System.getProperty("gate.url", "http://localhost:9999");
+        }
+        if (shared == null) {
+            // У каждого форка Gradle свой экземпляр приложения, поэтому и симулятор занимает свободный порт
+            int defaultPort = WorkerDatabase.isEnabled() ? 0 : 9999;
+            shared = new EmbeddedGateSimulator(Integer.getInteger("gate.port", defaultPort), loadCards());
+            Runtime.getRuntime().addShutdownHook(new Thread(shared::close, "gate-simulator-stop"));
+        }
+        return shared.getBaseUrl();
+    }
+
+    /**
+     * Запускает отдельный симулятор на свободном порту с теми же картами, что и общий. Тесты, которые
+     * обращаются к симулятору напрямую, не смешивают свои запросы с запросами приложения к общему
+     * симулятору: по ним {@link DataScope} закрепляет строки за тестами.
+     */
+    @SneakyThrows
+    public static EmbeddedGateSimulator startStandalone() {
+        return new EmbeddedGateSimulator(0, loadCards());
+    }
+
+    /**
+     * Карты из индекса {@code gate.cards} ({@link CardStatusIndex}), если он задан, иначе из {@code gate.data}
+     */
+    private static CardStatusStore loadCards() throws IOException {
+        String index = System.getProperty("gate.cards");
+        if (index != null) {
+            return CardStatusIndex.open(Paths.get(index));
+        }
+        return new JsonCardStatusStore(new File(System.getProperty("gate.data", "gate-simulator/data.json")));
+    }
+
+    /**
+     * Общий симулятор, запущенный {@link #ensureStarted()}, или null
+     */
+    public static synchronized EmbeddedGateSimulator shared() {
+        return shared;
+    }
+
+    /**
+     * Неисправности маршрута /payment
+     */
+    public RouteFaults payment() {
+        return paymentFaults;
+    }
+
+    /**
+     * Неисправности маршрута /credit
+     */
+    public RouteFaults credit() {
+        return creditFaults;
+    }
+
+    public String getBaseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange, RouteFaults faults, boolean credit) throws IOException {
+        try {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            String number = mapper.readTree(exchange.getRequestBody()).path("number").asText(null);
+            // id выдаётся при получении запроса, чтобы тест, отправивший форму, узнал его до записи строк
+            String id = UUID.randomUUID().toString();
+            DataScope.attributeGateRequest(number, credit, id);
+
+            sleep(faults.nextLatencyMillis());
+            if (faults.nextIsTimeout()) {
+                // Соединение закрывается без ответа после удержания — как у зависшего банка
+                sleep(faults.getTimeoutMillis());
+                return;
+            }
+            if (faults.nextIsError()) {
+                exchange.sendResponseHeaders(faults.getErrorStatus(), -1);
+                return;
+            }
+
+            String status = number == null ? null : cards.statusOf(number);
+            if (status == null) {
+                exchange.sendResponseHeaders(400, -1);
+                return;
+            }
+            ObjectNode body = mapper.createObjectNode()
+                    .put("id", id)
+                    .put("status", status);
+            byte[] bytes = mapper.writeValueAsString(body).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package ru.company.project.gate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Статусы карт из {@code gate-simulator/data.json} — тех же, что использует Node-симулятор.
+ */
+public class JsonCardStatusStore implements CardStatusStore {
+    private final Map<String, String> statuses = new HashMap<>();
+
+    /**
+     * @param dataFile JSON-массив объектов {@code {"number": ..., "status": ...}}
+     */
+    @SneakyThrows
+    public JsonCardStatusStore(File dataFile) {
+        for (JsonNode card : new ObjectMapper().readTree(dataFile)) {
+            statuses.put(card.path("number").asText(), card.path("status").asText());
+        }
+    }
+
+    @Override
+    public String statusOf(String number) {
+        return statuses.get(number);
+    }
+}
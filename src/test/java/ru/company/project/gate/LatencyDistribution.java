@@ -0,0 +1,47 @@
+package ru.company.project.gate;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Распределение искусственной задержки ответа симулятора, мс.
+ */
+@FunctionalInterface
+public interface LatencyDistribution {
+
+    /**
+     * Возвращает задержку очередного ответа в миллисекундах
+     */
+    long nextMillis();
+
+    /**
+     * Без задержки
+     */
+    static LatencyDistribution none() {
+        return () -> 0;
+    }
+
+    /**
+     * Постоянная задержка
+     */
+    static LatencyDistribution fixed(long millis) {
+        return () -> millis;
+    }
+
+    /**
+     * Равномерное распределение на отрезке [minMillis, maxMillis]
+     */
+    static LatencyDistribution uniform(long minMillis, long maxMillis) {
+        return () -> ThreadLocalRandom.current().nextLong(minMillis, maxMillis + 1);
+    }
+
+    /**
+     * Логнормальное распределение — типичная форма задержек сетевых сервисов с длинным хвостом.
+     *
+     * @param medianMillis медиана задержки
+     * @param sigma        разброс (0.5 — умеренный хвост, 1.0 — тяжёлый)
+     */
+    static LatencyDistribution logNormal(double medianMillis, double sigma) {
+        double mu = Math.log(medianMillis);
+        return () -> Math.round(Math.exp(mu + sigma * ThreadLocalRandom.current().nextGaussian()));
+    }
+}
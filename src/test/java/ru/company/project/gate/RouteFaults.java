@@ -0,0 +1,73 @@
+package ru.company.project.gate;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Настройки неисправностей одного маршрута симулятора (/payment или /credit).
+ * Поля изменяются во время работы теста и сразу действуют на следующие запросы.
+ */
+public class RouteFaults {
+    private volatile LatencyDistribution latency = LatencyDistribution.none();
+    private volatile double errorRate;
+    private volatile int errorStatus = 500;
+    private volatile double timeoutRate;
+    private volatile long timeoutMillis = 30_000;
+
+    /**
+     * Задаёт распределение задержки перед ответом
+     */
+    public RouteFaults latency(LatencyDistribution latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    /**
+     * Доля запросов (от 0 до 1), на которые симулятор отвечает HTTP-ошибкой {@code status}
+     */
+    public RouteFaults errors(double rate, int status) {
+        this.errorRate = rate;
+        this.errorStatus = status;
+        return this;
+    }
+
+    /**
+     * Доля запросов (от 0 до 1), на которые симулятор не отвечает: соединение
+     * удерживается {@code holdMillis} и закрывается без ответа
+     */
+    public RouteFaults timeouts(double rate, long holdMillis) {
+        this.timeoutRate = rate;
+        this.timeoutMillis = holdMillis;
+        return this;
+    }
+
+    /**
+     * Сбрасывает все неисправности маршрута
+     */
+    public RouteFaults reset() {
+        latency = LatencyDistribution.none();
+        errorRate = 0;
+        errorStatus = 500;
+        timeoutRate = 0;
+        return this;
+    }
+
+    long nextLatencyMillis() {
+        return latency.nextMillis();
+    }
+
+    boolean nextIsError() {
+        return errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate;
+    }
+
+    int getErrorStatus() {
+        return errorStatus;
+    }
+
+    boolean nextIsTimeout() {
+        return timeoutRate > 0 && ThreadLocalRandom.current().nextDouble() < timeoutRate;
+    }
+
+    long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+}
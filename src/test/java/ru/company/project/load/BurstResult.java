@@ -0,0 +1,68 @@
+package ru.company.project.load;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Результат {@link BurstSubmitter}: число ответов по категориям запросов и HTTP-кодам
+ */
+public class BurstResult {
+    private final Map<String, Map<Integer, Long>> counts = new TreeMap<>();
+    private final long elapsedNanos;
+
+    BurstResult(Map<String, Map<Integer, LongAdder>> counts, long elapsedNanos) {
+        counts.forEach((category, byStatus) -> {
+            Map<Integer, Long> copy = new TreeMap<>();
+            byStatus.forEach((status, count) -> copy.put(status, count.sum()));
+            this.counts.put(category, copy);
+        });
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Число ответов категории с указанным кодом
+     */
+    public long count(String category, int status) {
+        return counts.getOrDefault(category, Map.of()).getOrDefault(status, 0L);
+    }
+
+    /**
+     * Всего ответов (включая запросы без ответа)
+     */
+    public long getTotal() {
+        return counts.values().stream()
+                .flatMap(byStatus -> byStatus.values().stream())
+                .mapToLong(Long::longValue)
+                .sum();
+    }
+
+    /**
+     * Запросы, завершившиеся без ответа
+     */
+    public long getNoResponse() {
+        return counts.keySet().stream().mapToLong(category -> count(category, BurstSubmitter.NO_RESPONSE)).sum();
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Пропускная способность пачки, ответов в секунду
+     */
+    public double getThroughput() {
+        return elapsedNanos <= 0 ? 0 : getTotal() * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    public String summary() {
+        StringBuilder text = new StringBuilder(String.format(Locale.ROOT,
+                "%d requests in %.1f ms, throughput=%.1f rps, no response=%d%n",
+                getTotal(), elapsedNanos / 1e6, getThroughput(), getNoResponse()));
+        counts.forEach((category, byStatus) ->
+                text.append(String.format(Locale.ROOT, "%-20s %s%n", category, byStatus)));
+        return text.toString();
+    }
+}
@@ -0,0 +1,83 @@
+package ru.company.project.load;
+
+import lombok.SneakyThrows;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Одновременная отправка пачки запросов: все запросы уходят сразу, не дожидаясь ответов,
+ * одновременно "в полёте" — не больше {@code maxInFlight}.
+ *
+ * <p>Запросы отправляются асинхронно через {@link HttpClient#sendAsync}: тысячи одновременных
+ * запросов не требуют тысяч потоков (виртуальных потоков в Java 11 нет, а платформенные
+ * на такое число слишком дороги). Ответы группируются по категории запроса и HTTP-коду.</p>
+ */
+public class BurstSubmitter {
+    /** Код в статистике для запросов, завершившихся без ответа (таймаут, обрыв соединения) */
+    public static final int NO_RESPONSE = -1;
+
+    private static final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    private final int maxInFlight;
+
+    public BurstSubmitter(int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be positive: " + maxInFlight);
+        }
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Отправляет все запросы и ждёт все ответы.
+     *
+     * @param requests запросы с категориями (например, "PAYMENT/APPROVED")
+     * @return число ответов по категориям и HTTP-кодам и общее время пачки
+     */
+    @SneakyThrows
+    public BurstResult submit(List<Map.Entry<String, HttpRequest>> requests) {
+        Map<String, Map<Integer, LongAdder>> counts = new ConcurrentHashMap<>();
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        CountDownLatch done = new CountDownLatch(requests.size());
+
+        long start = System.nanoTime();
+        for (Map.Entry<String, HttpRequest> request : requests) {
+            inFlight.acquire();
+            send(request::getValue)
+                    .whenComplete((response, error) -> {
+                        int status = error == null ? response.statusCode() : NO_RESPONSE;
+                        counts.computeIfAbsent(request.getKey(), key -> new ConcurrentHashMap<>())
+                                .computeIfAbsent(status, key -> new LongAdder())
+                                .increment();
+                        inFlight.release();
+                        done.countDown();
+                    });
+        }
+        done.await();
+        return new BurstResult(counts, System.nanoTime() - start);
+    }
+
+    /**
+     * Отправляет запрос. Если {@code sendAsync} бросает исключение синхронно, возвращается future с ошибкой:
+     * разрешение и счётчик пачки освобождаются как обычно, а запрос учитывается как {@link #NO_RESPONSE}.
+     */
+    private CompletableFuture<HttpResponse<Void>> send(Supplier<HttpRequest> request) {
+        try {
+            return client.sendAsync(request.get(), HttpResponse.BodyHandlers.discarding());
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package ru.company.project.load;
+
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.IntPredicate;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Поиск максимальной устойчивой частоты: нагрузка подаётся ступенями с растущей частотой
+ * ({@link LoadGenerator} на каждой ступени), пока не будет достигнуто "колено" кривой.
+ *
+ * <p>Ступень считается за пределом ёмкости, если выполнено любое из условий:</p>
+ * <ul>
+ *     <li>p99 превышает SLO;</li>
+ *     <li>доля ошибок превышает допустимую;</li>
+ *     <li>фактическая пропускная способность ниже {@code minThroughputRatio} от подаваемой частоты —
+ *     сервер не успевает, и очередь растёт;</li>
+ *     <li>p99 вырос более чем в {@code kneeFactor} раз относительно предыдущей ступени.</li>
+ * </ul>
+ * <p>Поиск останавливается на первой такой ступени; ёмкостью считается пропускная способность
+ * последней устойчивой ступени.</p>
+ */
+public class CapacityFinder {
+    private final double startRate;
+    private final double stepRate;
+    private final double maxRate;
+    private final Duration stepDuration;
+    private final Duration warmUp;
+    private final double p99SloMillis;
+    private final double maxErrorRate;
+    private final double minThroughputRatio;
+    private final double kneeFactor;
+
+    /**
+     * @param startRate          частота первой ступени
+     * @param stepRate           прирост частоты на каждой следующей ступени
+     * @param maxRate            частота, выше которой поиск не продолжается
+     * @param stepDuration       длительность измеряемой фазы ступени
+     * @param warmUp             прогрев перед каждой ступенью
+     * @param p99SloMillis       SLO на p99, мс
+     * @param maxErrorRate       допустимая доля ошибок от 0 до 1
+     * @param minThroughputRatio минимальное отношение фактической пропускной способности к подаваемой частоте
+     * @param kneeFactor         допустимый рост p99 между соседними ступенями
+     */
+    public CapacityFinder(double startRate, double stepRate, double maxRate, Duration stepDuration, Duration warmUp,
+                          double p99SloMillis, double maxErrorRate, double minThroughputRatio, double kneeFactor) {
+        if (startRate <= 0 || stepRate <= 0) {
+            throw new IllegalArgumentException("Start and step rates must be positive: " + startRate + ", " + stepRate);
+        }
+        this.startRate = startRate;
+        this.stepRate = stepRate;
+        this.maxRate = maxRate;
+        this.stepDuration = stepDuration;
+        this.warmUp = warmUp;
+        this.p99SloMillis = p99SloMillis;
+        this.maxErrorRate = maxErrorRate;
+        this.minThroughputRatio = minThroughputRatio;
+        this.kneeFactor = kneeFactor;
+    }
+
+    /**
+     * Параметры из системных свойств capacity.*: startRate (10), stepRate (10), maxRate (1000),
+     * stepSec (20), warmUpSec (3), p99Ms (1000), maxErrorRate (0.01), minThroughputRatio (0.9), kneeFactor (2)
+     */
+    public static CapacityFinder fromSystemProperties() {
+        return new CapacityFinder(
+                doubleProperty("capacity.startRate", 10),
+                doubleProperty("capacity.stepRate", 10),
+                doubleProperty("capacity.maxRate", 1000),
+                Duration.ofSeconds(Long.getLong("capacity.stepSec", 20)),
+                Duration.ofSeconds(Long.getLong("capacity.warmUpSec", 3)),
+                doubleProperty("capacity.p99Ms", 1000),
+                doubleProperty("capacity.maxErrorRate", 0.01),
+                doubleProperty("capacity.minThroughputRatio", 0.9),
+                doubleProperty("capacity.kneeFactor", 2));
+    }
+
+    /**
+     * Проходит ступени до колена или до {@code maxRate}.
+     *
+     * @param name      имя сценария (для отчёта)
+     * @param requests  фабрика запросов
+     * @param isSuccess какие HTTP-коды считать успешными
+     * @param rowCount  текущее число строк, прирост которого измеряется (например, заказов в БД)
+     */
+    public CapacityReport search(String name, Supplier<HttpRequest> requests, IntPredicate isSuccess,
+                                 LongSupplier rowCount) {
+        List<CapacityStep> steps = new ArrayList<>();
+        CapacityStep previous = null;
+        for (double rate = startRate; rate <= maxRate; rate += stepRate) {
+            LoadGenerator generator = new LoadGenerator(rate, stepDuration, warmUp, maxInFlight(rate));
+            long rowsBefore = rowCount.getAsLong();
+            long started = System.nanoTime();
+            LoadResult result = generator.run(String.format(Locale.ROOT, "%s @ %.0f rps", name, rate),
+                    requests, isSuccess);
+            double elapsedSec = (System.nanoTime() - started) / 1e9;
+            double ordersPerSecond = (rowCount.getAsLong() - rowsBefore) / elapsedSec;
+
+            double p99 = result.getPercentileMillis(99);
+            CapacityStep step = new CapacityStep(rate, result.getThroughput(), result.getPercentileMillis(50), p99,
+                    result.getErrorRate(), ordersPerSecond, breach(rate, result, previous));
+            steps.add(step);
+            if (!step.isSustained()) {
+                break;
+            }
+            previous = step;
+        }
+        return new CapacityReport(name, steps);
+    }
+
+    private String breach(double rate, LoadResult result, CapacityStep previous) {
+        double p99 = result.getPercentileMillis(99);
+        if (result.getErrorRate() > maxErrorRate) {
+            return String.format(Locale.ROOT, "ошибки %.2f%% > %.2f%%", result.getErrorRate() * 100, maxErrorRate * 100);
+        }
+        if (p99 > p99SloMillis) {
+            return String.format(Locale.ROOT, "p99 %.1f мс > SLO %.0f мс", p99, p99SloMillis);
+        }
+        if (result.getThroughput() < rate * minThroughputRatio) {
+            return String.format(Locale.ROOT, "пропускная способность %.1f rps < %.0f%% от %.0f rps",
+                    result.getThroughput(), minThroughputRatio * 100, rate);
+        }
+        if (previous != null && p99 > previous.getP99Millis() * kneeFactor) {
+            return String.format(Locale.ROOT, "колено: p99 вырос с %.1f до %.1f мс", previous.getP99Millis(), p99);
+        }
+        return null;
+    }
+
+    /**
+     * Запас запросов "в полёте": не меньше 64 и не меньше числа запросов за 10 секунд —
+     * при насыщении ограничение не должно скрывать рост задержек
+     */
+    private static int maxInFlight(double rate) {
+        return (int) Math.max(64, Math.min(100_000, rate * 10));
+    }
+
+    private static double doubleProperty(String name, double defaultValue) {
+        String value = System.getProperty(name);
+        return value == null ? defaultValue : Double.parseDouble(value);
+    }
+}
@@ -0,0 +1,153 @@
+package ru.company.project.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.qameta.allure.Allure;
+import lombok.SneakyThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Результат поиска ёмкости: все пройденные ступени, ёмкость (пропускная способность последней
+ * устойчивой ступени) и причина остановки. Сохраняется в JSON, чтобы сравнивать прогоны
+ * на разных СУБД ({@link #compare(Path)}).
+ */
+public class CapacityReport {
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private final String name;
+    private final List<CapacityStep> steps;
+
+    public CapacityReport(String name, List<CapacityStep> steps) {
+        this.name = name;
+        this.steps = List.copyOf(steps);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<CapacityStep> getSteps() {
+        return steps;
+    }
+
+    /**
+     * Последняя устойчивая ступень или null, если предел превышен уже на первой
+     */
+    public CapacityStep getLastSustained() {
+        CapacityStep last = null;
+        for (CapacityStep step : steps) {
+            if (step.isSustained()) {
+                last = step;
+            }
+        }
+        return last;
+    }
+
+    /**
+     * Максимальная устойчивая пропускная способность, ответов в секунду (0, если устойчивых ступеней нет)
+     */
+    public double getMaxSustainedThroughput() {
+        CapacityStep last = getLastSustained();
+        return last == null ? 0 : last.getThroughput();
+    }
+
+    /**
+     * Причина остановки: нарушение на последней ступени или достижение верхней границы частоты
+     */
+    public String getStopReason() {
+        if (steps.isEmpty()) {
+            return "ступени не выполнялись";
+        }
+        String breach = steps.get(steps.size() - 1).getBreach();
+        return breach != null ? breach : "достигнута верхняя граница частоты (capacity.maxRate)";
+    }
+
+    /**
+     * Таблица ступеней и итог
+     */
+    public String summary() {
+        StringBuilder text = new StringBuilder(String.format(Locale.ROOT, "%s: max sustained = %.1f rps (%s)%n",
+                name, getMaxSustainedThroughput(), getStopReason()));
+        text.append(String.format(Locale.ROOT, "%10s %12s %10s %10s %8s %10s  %s%n",
+                "offered", "throughput", "p50 ms", "p99 ms", "errors", "orders/s", "verdict"));
+        for (CapacityStep step : steps) {
+            text.append(String.format(Locale.ROOT, "%10.1f %12.1f %10.2f %10.2f %7.2f%% %10.1f  %s%n",
+                    step.getOfferedRate(), step.getThroughput(), step.getP50Millis(), step.getP99Millis(),
+                    step.getErrorRate() * 100, step.getOrdersPerSecond(),
+                    step.isSustained() ? "ok" : step.getBreach()));
+        }
+        return text.toString();
+    }
+
+    @SneakyThrows
+    public String toJson() {
+        ObjectNode root = mapper.createObjectNode();
+        root.put("name", name);
+        root.put("maxSustainedThroughput", getMaxSustainedThroughput());
+        CapacityStep last = getLastSustained();
+        if (last != null) {
+            root.put("p99AtMaxMs", last.getP99Millis());
+            root.put("ordersPerSecondAtMax", last.getOrdersPerSecond());
+        }
+        root.put("stopReason", getStopReason());
+        ArrayNode array = root.putArray("steps");
+        for (CapacityStep step : steps) {
+            ObjectNode node = array.addObject();
+            node.put("offeredRate", step.getOfferedRate());
+            node.put("throughput", step.getThroughput());
+            node.put("p50Ms", step.getP50Millis());
+            node.put("p99Ms", step.getP99Millis());
+            node.put("errorRate", step.getErrorRate());
+            node.put("ordersPerSecond", step.getOrdersPerSecond());
+            node.put("breach", step.getBreach());
+        }
+        return mapper.writerWithDefaultPrettyPrinter().writeValueAsString(root);
+    }
+
+    /**
+     * Записывает отчёт в JSON-файл, создавая каталоги
+     */
+    @SneakyThrows
+    public void writeTo(Path file) {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Files.writeString(file, toJson(), StandardCharsets.UTF_8);
+    }
+
+    public void attachToAllure() {
+        Allure.addAttachment(name + " — ступени", "text/plain", summary());
+        Allure.addAttachment(name + " — отчёт", "application/json", toJson());
+    }
+
+    /**
+     * Сводная таблица по всем JSON-отчётам каталога — например, mysql-PAYMENT.json и postgresql-PAYMENT.json
+     * после прогонов на обеих СУБД на одном стенде
+     */
+    @SneakyThrows
+    public static String compare(Path dir) {
+        List<Path> files;
+        try (Stream<Path> list = Files.list(dir)) {
+            files = list.filter(file -> file.getFileName().toString().endsWith(".json"))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+        StringBuilder text = new StringBuilder(String.format(Locale.ROOT, "%-24s %14s %12s  %s%n",
+                "run", "max rps", "p99 at max", "stop reason"));
+        for (Path file : files) {
+            JsonNode report = mapper.readTree(file.toFile());
+            String run = file.getFileName().toString().replaceFirst("\\.json$", "");
+            text.append(String.format(Locale.ROOT, "%-24s %14.1f %9.2f ms  %s%n", run,
+                    report.path("maxSustainedThroughput").asDouble(), report.path("p99AtMaxMs").asDouble(),
+                    report.path("stopReason").asText()));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,26 @@
+package ru.company.project.load;
+
+import lombok.Value;
+
+/**
+ * Результат одной ступени поиска ёмкости ({@link CapacityFinder})
+ */
+@Value
+public class CapacityStep {
+    /** Подаваемая частота, запросов в секунду */
+    double offeredRate;
+    /** Фактическая пропускная способность, ответов в секунду */
+    double throughput;
+    double p50Millis;
+    double p99Millis;
+    /** Доля ошибочных ответов от 0 до 1 */
+    double errorRate;
+    /** Прирост строк order_entity в секунду за время ступени */
+    double ordersPerSecond;
+    /** Причина, по которой ступень считается за пределом ёмкости, или null */
+    String breach;
+
+    public boolean isSustained() {
+        return breach == null;
+    }
+}
@@ -0,0 +1,68 @@
+package ru.company.project.load;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверки результата замера по перцентилям и пропускной способности вместо единичного значения.
+ *
+ * <pre>{@code
+ * LatencyAssert.assertThat(result)
+ *         .hasNoErrors()
+ *         .percentileBelow(50, 300)
+ *         .percentileBelow(99, 600)
+ *         .throughputAtLeast(5);
+ * }</pre>
+ */
+public class LatencyAssert {
+    private final LoadResult result;
+
+    private LatencyAssert(LoadResult result) {
+        this.result = result;
+    }
+
+    public static LatencyAssert assertThat(LoadResult result) {
+        return new LatencyAssert(result);
+    }
+
+    /**
+     * Все ответы имеют ожидаемый HTTP-код
+     */
+    public LatencyAssert hasNoErrors() {
+        assertEquals(0, result.getFailed(), String.format(
+                "%s: неожиданный HTTP-код в %d из %d ответов",
+                result.getName(), result.getFailed(), result.getSucceeded() + result.getFailed()));
+        return this;
+    }
+
+    /**
+     * Перцентиль времени ответа меньше бюджета
+     *
+     * @param percentile перцентиль от 0 до 100
+     * @param maxMillis  бюджет в миллисекундах
+     */
+    public LatencyAssert percentileBelow(double percentile, double maxMillis) {
+        double actual = result.getPercentileMillis(percentile);
+        assertTrue(actual < maxMillis, String.format(
+                "%s: p%s времени ответа должен быть меньше %.0f мс, фактически: %.2f мс",
+                result.getName(), formatPercentile(percentile), maxMillis, actual));
+        return this;
+    }
+
+    /**
+     * Пропускная способность не ниже заданной
+     *
+     * @param minPerSecond минимальное число ответов в секунду
+     */
+    public LatencyAssert throughputAtLeast(double minPerSecond) {
+        double actual = result.getThroughput();
+        assertTrue(actual >= minPerSecond, String.format(
+                "%s: пропускная способность должна быть не ниже %.1f ответов/с, фактически: %.1f",
+                result.getName(), minPerSecond, actual));
+        return this;
+    }
+
+    private static String formatPercentile(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+    }
+}
@@ -0,0 +1,69 @@
+package ru.company.project.load;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntPredicate;
+import java.util.function.IntSupplier;
+
+/**
+ * Последовательный замер времени ответа по N выборкам (закрытая модель: следующий запрос —
+ * после ответа на предыдущий).
+ *
+ * <p>Перед замером выполняется прогрев: первые вызовы включают JIT-компиляцию клиента,
+ * установку соединения и инициализацию RestAssured и в выборку не попадают.</p>
+ */
+public class LatencySampler {
+    private final int warmUpIterations;
+    private final int samples;
+
+    /**
+     * @param warmUpIterations число вызовов прогрева
+     * @param samples          число измеряемых вызовов
+     */
+    public LatencySampler(int warmUpIterations, int samples) {
+        if (samples < 1) {
+            throw new IllegalArgumentException("Samples must be positive: " + samples);
+        }
+        this.warmUpIterations = warmUpIterations;
+        this.samples = samples;
+    }
+
+    /**
+     * Создаёт сэмплер по системным свойствам api.timing.warmUp и api.timing.samples
+     */
+    public static LatencySampler fromSystemProperties() {
+        return new LatencySampler(
+                Integer.getInteger("api.timing.warmUp", 20),
+                Integer.getInteger("api.timing.samples", 100));
+    }
+
+    /**
+     * Выполняет прогрев и замер.
+     *
+     * @param name      имя замера (для отчёта)
+     * @param call      вызов, возвращающий HTTP-код ответа
+     * @param isSuccess какие HTTP-коды считать ожидаемыми
+     */
+    public LoadResult sample(String name, IntSupplier call, IntPredicate isSuccess) {
+        for (int i = 0; i < warmUpIterations; i++) {
+            call.getAsInt();
+        }
+
+        Histogram histogram = new Histogram(3);
+        long succeeded = 0;
+        long failed = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < samples; i++) {
+            long callStart = System.nanoTime();
+            int status = call.getAsInt();
+            histogram.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - callStart));
+            if (isSuccess.test(status)) {
+                succeeded++;
+            } else {
+                failed++;
+            }
+        }
+        return new LoadResult(name, 0, histogram, succeeded, failed, System.nanoTime() - start);
+    }
+}
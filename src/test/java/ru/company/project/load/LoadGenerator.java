@@ -0,0 +1,125 @@
+package ru.company.project.load;
+
+import lombok.SneakyThrows;
+import org.HdrHistogram.Recorder;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntPredicate;
+import java.util.function.Supplier;
+
+/**
+ * Генератор нагрузки по открытой модели: запросы отправляются с заданной частотой
+ * независимо от того, успел ли ответить сервер на предыдущие.
+ *
+ * <p>Задержка каждого запроса отсчитывается от его <b>запланированного</b> момента отправки,
+ * а не от фактического. Если генератор или сервер отстают, ожидание попадает в гистограмму —
+ * так учитывается coordinated omission, и хвостовые перцентили не занижаются.</p>
+ *
+ * <p>Запросы отправляются асинхронно через {@link HttpClient#sendAsync}, поэтому один
+ * поток-диспетчер держит любое число запросов "в полёте" (не больше {@code maxInFlight}).</p>
+ */
+public class LoadGenerator {
+    private static final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final double ratePerSecond;
+    private final Duration duration;
+    private final Duration warmUp;
+    private final int maxInFlight;
+
+    /**
+     * @param ratePerSecond целевая частота запросов
+     * @param duration      длительность измеряемой фазы
+     * @param warmUp        длительность прогрева (запросы отправляются, но не учитываются)
+     * @param maxInFlight   ограничение на число одновременно ожидающих ответа запросов
+     */
+    public LoadGenerator(double ratePerSecond, Duration duration, Duration warmUp, int maxInFlight) {
+        if (ratePerSecond <= 0) {
+            throw new IllegalArgumentException("Rate must be positive: " + ratePerSecond);
+        }
+        this.ratePerSecond = ratePerSecond;
+        this.duration = duration;
+        this.warmUp = warmUp;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Подаёт нагрузку на один эндпоинт и возвращает результат измеряемой фазы.
+     *
+     * @param name      имя сценария (для отчёта)
+     * @param requests  фабрика запросов; вызывается для каждой отправки
+     * @param isSuccess какие HTTP-коды считать успешными
+     */
+    @SneakyThrows
+    public LoadResult run(String name, Supplier<HttpRequest> requests, IntPredicate isSuccess) {
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        long warmUpCount = (long) (ratePerSecond * warmUp.toMillis() / 1000.0);
+        long measuredCount = Math.max(1, (long) (ratePerSecond * duration.toMillis() / 1000.0));
+        long total = warmUpCount + measuredCount;
+
+        Recorder recorder = new Recorder(3);
+        LongAdder succeeded = new LongAdder();
+        LongAdder failed = new LongAdder();
+        AtomicLong lastCompletion = new AtomicLong();
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        CountDownLatch done = new CountDownLatch((int) total);
+
+        long start = System.nanoTime();
+        for (long i = 0; i < total; i++) {
+            long intended = start + i * intervalNanos;
+            parkUntil(intended);
+            boolean measured = i >= warmUpCount;
+            inFlight.acquire();
+            send(requests)
+                    .whenComplete((response, error) -> {
+                        long now = System.nanoTime();
+                        if (measured) {
+                            recorder.recordValue(TimeUnit.NANOSECONDS.toMicros(now - intended));
+                            if (error == null && isSuccess.test(response.statusCode())) {
+                                succeeded.increment();
+                            } else {
+                                failed.increment();
+                            }
+                            lastCompletion.accumulateAndGet(now, Math::max);
+                        }
+                        inFlight.release();
+                        done.countDown();
+                    });
+        }
+        done.await();
+
+        long measuredStart = start + warmUpCount * intervalNanos;
+        return new LoadResult(name, ratePerSecond, recorder.getIntervalHistogram(),
+                succeeded.sum(), failed.sum(), lastCompletion.get() - measuredStart);
+    }
+
+    /**
+     * Отправляет запрос. Синхронная ошибка фабрики запросов или {@code sendAsync} возвращается как future
+     * с ошибкой: отправка засчитывается неуспешной, а {@code done.await()} не зависает на потерянном ответе.
+     */
+    private CompletableFuture<HttpResponse<Void>> send(Supplier<HttpRequest> request) {
+        try {
+            return client.sendAsync(request.get(), HttpResponse.BodyHandlers.discarding());
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static void parkUntil(long deadlineNanos) {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package ru.company.project.load;
+
+import io.qameta.allure.Allure;
+import org.HdrHistogram.Histogram;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Результат измеряемой фазы {@link LoadGenerator}: гистограмма задержек (в микросекундах),
+ * число успешных и ошибочных ответов и фактическая пропускная способность.
+ */
+public class LoadResult {
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final String name;
+    private final double targetRate;
+    private final Histogram histogram;
+    private final long succeeded;
+    private final long failed;
+    private final long elapsedNanos;
+
+    public LoadResult(String name, double targetRate, Histogram histogram,
+                      long succeeded, long failed, long elapsedNanos) {
+        this.name = name;
+        this.targetRate = targetRate;
+        this.histogram = histogram;
+        this.succeeded = succeeded;
+        this.failed = failed;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Histogram getHistogram() {
+        return histogram;
+    }
+
+    public long getSucceeded() {
+        return succeeded;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    /**
+     * Значение перцентиля задержки в миллисекундах
+     *
+     * @param percentile перцентиль от 0 до 100 (например, 99.9)
+     */
+    public double getPercentileMillis(double percentile) {
+        return histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+
+    /**
+     * Максимальная задержка в миллисекундах
+     */
+    public double getMaxMillis() {
+        return histogram.getMaxValue() / MICROS_PER_MILLI;
+    }
+
+    /**
+     * Фактическая пропускная способность, ответов в секунду
+     */
+    public double getThroughput() {
+        return elapsedNanos <= 0 ? 0 : (succeeded + failed) * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    /**
+     * Доля ошибочных ответов от 0 до 1
+     */
+    public double getErrorRate() {
+        long total = succeeded + failed;
+        return total == 0 ? 0 : failed / (double) total;
+    }
+
+    /**
+     * Краткая сводка: частота, пропускная способность, ошибки и перцентили
+     */
+    public String summary() {
+        // targetRate == 0 означает последовательный замер без целевой частоты (LatencySampler)
+        String target = targetRate > 0 ? String.format(Locale.ROOT, "target=%.1f rps, ", targetRate) : "";
+        return String.format(Locale.ROOT,
+                "%s: %sthroughput=%.1f rps, requests=%d, errors=%d (%.2f%%)%n"
+                        + "p50=%.2f ms, p90=%.2f ms, p99=%.2f ms, p99.9=%.2f ms, max=%.2f ms",
+                name, target, getThroughput(), succeeded + failed, failed, getErrorRate() * 100,
+                getPercentileMillis(50), getPercentileMillis(90), getPercentileMillis(99),
+                getPercentileMillis(99.9), getMaxMillis());
+    }
+
+    /**
+     * Прикладывает к текущему тесту в Allure сводку и полное распределение перцентилей
+     */
+    public void attachToAllure() {
+        Allure.addAttachment(name + " — сводка", "text/plain", summary());
+        Allure.addAttachment(name + " — распределение задержек (мс)", "text/plain", percentileDistribution());
+    }
+
+    private String percentileDistribution() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (PrintStream print = new PrintStream(out, true, StandardCharsets.UTF_8)) {
+            histogram.outputPercentileDistribution(print, MICROS_PER_MILLI);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,133 @@
+package ru.company.project.pages;
+
+import com.codeborne.selenide.WebDriverRunner;
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+
+import static com.codeborne.selenide.Selenide.executeAsyncJavaScript;
+import static com.codeborne.selenide.Selenide.executeJavaScript;
+
+
+/**
+ * Ожидание ответа приложения на отправку формы по сетевому событию, а не опросом DOM.
+ *
+ * <p>Перед нажатием "Продолжить" в страницу устанавливается перехватчик {@code XMLHttpRequest}
+ * и {@code fetch}, запоминающий завершение запросов к {@code /api/}. Ожидание — асинхронный
+ * скрипт, который завершается в момент прихода ответа, поэтому тест ждёт ровно столько,
+ * сколько отвечает приложение. Перехватчик работает в любом браузере (Chrome, Firefox, Safari).</p>
+ */
+class ApiResponseWaiter {
+    private static final String INSTALL_SCRIPT = String.join("\n",
+            "if (!window.__apiWait) {",
+            "  var state = window.__apiWait = {responses: [], listeners: []};",
+            "  var notify = function (status) {",
+            "    state.responses.push(status);",
+            "    var listeners = state.listeners; state.listeners = [];",
+            "    listeners.forEach(function (listener) { listener(status); });",
+            "  };",
+            "  var isApi = function (url) { return String(url).indexOf('/api/') >= 0; };",
+            "  var open = XMLHttpRequest.prototype.open;",
+            "  XMLHttpRequest.prototype.open = function (method, url) {",
+            "    this.__isApi = isApi(url);",
+            "    return open.apply(this, arguments);",
+            "  };",
+            "  var send = XMLHttpRequest.prototype.send;",
+            "  XMLHttpRequest.prototype.send = function () {",
+            "    if (this.__isApi) { state.sent++; this.addEventListener('loadend', function () { notify(this.status); }); }",
+            "    return send.apply(this, arguments);",
+            "  };",
+            "  if (window.fetch) {",
+            "    var originalFetch = window.fetch;",
+            "    window.fetch = function (input) {",
+            "      var promise = originalFetch.apply(this, arguments);",
+            "      if (isApi(input && input.url || input)) {",
+            "        state.sent++;",
+            "        promise.then(function (r) { notify(r.status); }, function () { notify(0); });",
+            "      }",
+            "      return promise;",
+            "    };",
+            "  }",
+            "}",
+            "window.__apiWait.responses = [];",
+            "window.__apiWait.sent = 0;");
+
+    private static final String AWAIT_SCRIPT = String.join("\n",
+            "var done = arguments[arguments.length - 1];",
+            "var state = window.__apiWait;",
+            "if (!state) { done(-1); return; }",
+            "if (state.responses.length) { done(state.responses[0]); return; }",
+            "state.listeners.push(done);");
+
+    /**
+     * Как {@link #AWAIT_SCRIPT}, но без отправленного запроса завершается сразу. Обработчик кнопки
+     * может отправить запрос не синхронно (после цепочки промисов), поэтому отсутствие запроса
+     * подтверждается повторной проверкой через 100 мс.
+     */
+    private static final String SUBMISSION_SCRIPT = String.join("\n",
+            "var done = arguments[arguments.length - 1];",
+            "var state = window.__apiWait;",
+            "if (!state) { done(-1); return; }",
+            "var wait = function () {",
+            "  if (state.responses.length) { done(state.responses[0]); return; }",
+            "  if (!state.sent) { done(-2); return; }",
+            "  state.listeners.push(done);",
+            "};",
+            "if (state.sent) { wait(); } else { setTimeout(wait, 100); }");
+
+    /**
+     * Устанавливает перехватчик и сбрасывает ранее полученные ответы
+     */
+    static void arm() {
+        try {
+            executeJavaScript(INSTALL_SCRIPT);
+        } catch (JavascriptException ignored) {
+            // Без перехватчика await() вернёт false и проверка перейдёт на опрос DOM
+        }
+    }
+
+    /**
+     * Ждёт ответа приложения на запрос к /api/ не дольше {@code timeout}.
+     *
+     * @return true, если ожидание прошло по сетевому событию (ответ пришёл или истёк таймаут);
+     * false, если перехватчик не установлен и нужно ждать опросом DOM
+     */
+    static boolean await(Duration timeout) {
+        Number status = run(AWAIT_SCRIPT, timeout);
+        return status == null || status.intValue() >= 0;
+    }
+
+    /**
+     * Ждёт ответа на запрос, отправленный нажатием кнопки, не дольше {@code timeout}. Если запрос
+     * не отправлен (форма не прошла проверку в браузере), возвращается сразу.
+     *
+     * @return true, если ответ пришёл или запроса не было; false, если истёк таймаут или перехватчик
+     * не установлен — запрос, возможно, ещё обрабатывается
+     */
+    static boolean awaitSubmission(Duration timeout) {
+        Number status = run(SUBMISSION_SCRIPT, timeout);
+        return status != null && status.intValue() != -1;
+    }
+
+    /**
+     * Выполняет асинхронный скрипт ожидания
+     *
+     * @return результат скрипта или null, если истёк таймаут
+     */
+    private static Number run(String script, Duration timeout) {
+        // Браузер переиспользуется следующими тестами: таймаут асинхронных скриптов возвращается прежним
+        WebDriver.Timeouts timeouts = WebDriverRunner.getWebDriver().manage().timeouts();
+        Duration previous = timeouts.getScriptTimeout();
+        timeouts.scriptTimeout(timeout);
+        try {
+            return executeAsyncJavaScript(script);
+        } catch (ScriptTimeoutException e) {
+            // Ответа нет — последующая проверка DOM упадёт с понятным сообщением
+            return null;
+        } finally {
+            timeouts.scriptTimeout(previous);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package ru.company.project.pages;
+
+/**
+ * Форма оплаты по карте: заполнение и отправка.
+ *
+ * <p>Реализации: {@link CardPage} — через браузер, {@code ApiCardForm} — напрямую в REST API приложения.
+ * Сценарии, проверяющие только серверный результат (статус в БД, число заказов), могут работать с любой.</p>
+ */
+public interface CardForm {
+
+    /**
+     * Заполняет форму; month/year/holder/cvc принимают те же форматы, что и {@code DataHelper}
+     */
+    void fillingCardForm(String card, Object month, Object year, String holder, String cvc);
+
+    /**
+     * Отправляет форму
+     */
+    void submit();
+}
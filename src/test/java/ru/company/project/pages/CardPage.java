@@ -2,21 +2,61 @@ package ru.company.project.pages;
 
 import com.codeborne.selenide.SelenideElement;
 import io.qameta.allure.Step;
-import ru.company.project.data.DBHelper;
 import ru.company.project.data.DataHelper;
+import ru.company.project.data.DataScope;
+import ru.company.project.data.StatusAwaiter;
 
-import java.sql.SQLException;
 import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import static com.codeborne.selenide.Condition.text;
 import static com.codeborne.selenide.Condition.visible;
 import static com.codeborne.selenide.Selectors.byText;
 import static com.codeborne.selenide.Selenide.$;
+import static com.codeborne.selenide.Selenide.executeJavaScript;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static ru.company.project.data.CardTestData.*;
 
 
-public class CardPage {
+public class CardPage implements CardForm {
+    /**
+     * Заполнение формы одним JavaScript-вызовом вместо пяти цепочек setValue (свойство form.fastFill=true)
+     */
+    private static final boolean FAST_FILL = Boolean.getBoolean("form.fastFill");
+
+    /**
+     * Ожидание уведомления по ответу приложения (network) или опросом DOM (polling), свойство notification.wait
+     */
+    private static final boolean NETWORK_WAIT = !"polling".equalsIgnoreCase(System.getProperty("notification.wait", "network"));
+    private static final Duration NOTIFICATION_TIMEOUT = Duration.ofSeconds(15);
+    /** Время на отрисовку уведомления после того, как ответ приложения уже получен */
+    private static final Duration NOTIFICATION_RENDER_TIMEOUT = Duration.ofSeconds(2);
+
+    /**
+     * Находит поле по подписи так же, как byText(label).parent().$(".input__control"), выставляет значение
+     * через нативный setter (иначе React не увидит изменения) и генерирует события input/change/focusout.
+     * Возвращает подписи, для которых поле не найдено.
+     */
+    private static final String FAST_FILL_SCRIPT = String.join("\n",
+            "var values = arguments[0];",
+            "var setter = Object.getOwnPropertyDescriptor(HTMLInputElement.prototype, 'value').set;",
+            "var missing = [];",
+            "Object.keys(values).forEach(function (label) {",
+            "  var caption = document.evaluate('//*[text()[normalize-space(.)=\"' + label + '\"]]', document, null,",
+            "      XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;",
+            "  var input = caption && caption.parentElement.querySelector('.input__control');",
+            "  if (!input) { missing.push(label); return; }",
+            "  input.focus();",
+            "  setter.call(input, values[label]);",
+            "  input.dispatchEvent(new Event('input', {bubbles: true}));",
+            "  input.dispatchEvent(new Event('change', {bubbles: true}));",
+            "  input.dispatchEvent(new FocusEvent('focusout', {bubbles: true}));",
+            "});",
+            "return missing;");
+
     private final SelenideElement cardNumberField = $(byText("Номер карты")).parent().$(".input__control");
     private final SelenideElement monthField = $(byText("Месяц")).parent().$(".input__control");
     private final SelenideElement yearField = $(byText("Год")).parent().$(".input__control");
@@ -55,7 +95,13 @@ public class CardPage {
         cvcField.setValue(cvc);
     }
 
+    @Override
     public void fillingCardForm(String card, Object month, Object year, String holder, String cvc) {
+        if (FAST_FILL) {
+            fillFormInOneCall(card, DataHelper.getMonth(month), DataHelper.getYear(year),
+                    DataHelper.getHolderNameFormat(holder), DataHelper.getCvc(cvc));
+            return;
+        }
         enterCardNumber(card);
         enterMonth(DataHelper.getMonth(month));
         enterYear(DataHelper.getYear(year));
@@ -63,16 +109,42 @@ public class CardPage {
         enterCVC(DataHelper.getCvc(cvc));
     }
 
+    @Step("Заполнить форму: {cardNumber}, {month}/{year}, {holder}, CVC {cvc}")
+    public void fillFormInOneCall(String cardNumber, String month, String year, String holder, String cvc) {
+        Map<String, String> values = new LinkedHashMap<>();
+        values.put("Номер карты", cardNumber);
+        values.put("Месяц", month);
+        values.put("Год", year);
+        values.put("Владелец", holder);
+        values.put("CVC/CVV", cvc);
+        List<String> missing = executeJavaScript(FAST_FILL_SCRIPT, values);
+        assertTrue(missing == null || missing.isEmpty(), "Не найдены поля формы: " + missing);
+    }
+
+    @Override
     @Step("Нажать кнопку 'Продолжить'")
     public void submit() {
+        boolean scoped = DataScope.current() != null;
+        if (scoped) {
+            // Номер берётся из поля, а не из теста: маска формы могла его изменить
+            DataScope.openSubmitWindow(cardNumberField.getValue());
+        }
+        if (NETWORK_WAIT || scoped) {
+            ApiResponseWaiter.arm();
+        }
         continueButton.shouldBe(visible).click();
+        // Обычно окно отправки закрывает запрос приложения к банку. Если форма не ушла или приложение
+        // ответило без обращения к банку, окно закрывается здесь; без ответа — в конце теста
+        if (scoped && ApiResponseWaiter.awaitSubmission(NOTIFICATION_TIMEOUT)) {
+            DataScope.closeSubmitWindow();
+        }
     }
 
     @Step("Уведомление: \"Успешно Операция одобрена Банком.\"")
     public void verifySuccessNotification() {
         successNotification
                 .shouldBe(visible
-                        .because("Должно отображаться уведомление об успехе"), Duration.ofSeconds(15))
+                        .because("Должно отображаться уведомление об успехе"), notificationTimeout())
                 .shouldHave(text(BANK_TRANSACTION_APPROVAL_1))
                 .shouldHave(text(BANK_TRANSACTION_APPROVAL_2));
     }
@@ -81,11 +153,21 @@ public class CardPage {
     public void verifyRejectionNotification() {
         errorNotification
                 .shouldBe(visible
-                        .because("Должно отображаться уведомление об ошибке"), Duration.ofSeconds(15))
+                        .because("Должно отображаться уведомление об ошибке"), notificationTimeout())
                 .shouldHave(text(BANK_TRANSACTION_REFUSAL_1))
                 .shouldHave(text(BANK_TRANSACTION_REFUSAL_2));
     }
 
+    /**
+     * Ждёт ответа приложения на отправку формы; после него уведомлению остаётся только отрисоваться.
+     * Если перехватчик запросов недоступен, уведомление ожидается опросом DOM с полным таймаутом.
+     */
+    private Duration notificationTimeout() {
+        return NETWORK_WAIT && ApiResponseWaiter.await(NOTIFICATION_TIMEOUT)
+                ? NOTIFICATION_RENDER_TIMEOUT
+                : NOTIFICATION_TIMEOUT;
+    }
+
     @Step("Проверка статуса {systemType}")
     public void verifyStatus(String systemType, String expectedStatus, String actualStatus) {
         assertEquals(expectedStatus, actualStatus, String.format(
@@ -94,12 +176,12 @@ public class CardPage {
         ));
     }
 
-    public void verifyPaymentStatus(String expectedStatus) throws SQLException {
-        verifyStatus("платежной системы (Payment Gate)", expectedStatus, DBHelper.getPaymentStatus());
+    public void verifyPaymentStatus(String expectedStatus) {
+        verifyStatus("платежной системы (Payment Gate)", expectedStatus, StatusAwaiter.awaitPaymentStatus());
     }
 
-    public void verifyCreditStatus(String expectedStatus) throws SQLException {
-        verifyStatus("кредитной системы (Credit Gate)", expectedStatus, DBHelper.getCreditStatus());
+    public void verifyCreditStatus(String expectedStatus) {
+        verifyStatus("кредитной системы (Credit Gate)", expectedStatus, StatusAwaiter.awaitCreditStatus());
     }
 
     @Step("Уведомление: \"Неверный формат\"")
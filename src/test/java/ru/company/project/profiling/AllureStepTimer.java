@@ -0,0 +1,31 @@
+package ru.company.project.profiling;
+
+import io.qameta.allure.listener.StepLifecycleListener;
+import io.qameta.allure.model.StepResult;
+
+/**
+ * Замеряет каждый шаг Allure: {@code @Step} страниц и шаги Selenide из AllureSelenide.
+ * Подключается через META-INF/services/io.qameta.allure.listener.LifecycleListener.
+ */
+public class AllureStepTimer implements StepLifecycleListener {
+
+    @Override
+    public void beforeStepStart(StepResult result) {
+        PhaseProfiler.begin(phaseName(result));
+    }
+
+    @Override
+    public void afterStepStop(StepResult result) {
+        PhaseProfiler.end();
+    }
+
+    /**
+     * Имя шага без подставленных значений параметров ("Ввести месяц: 05" → "Ввести месяц"),
+     * чтобы замеры одного шага с разными данными попадали в одну фазу
+     */
+    private static String phaseName(StepResult result) {
+        String name = result.getName() == null ? "step" : result.getName();
+        int colon = name.indexOf(':');
+        return result.getParameters().isEmpty() || colon < 0 ? name : name.substring(0, colon).trim();
+    }
+}
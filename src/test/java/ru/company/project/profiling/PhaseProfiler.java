@@ -0,0 +1,140 @@
+package ru.company.project.profiling;
+
+import lombok.SneakyThrows;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Профилировщик фаз тестов: замеряет время вложенных фаз (жизненный цикл JUnit, шаги Allure,
+ * явные участки кода) по {@link System#nanoTime()} и копит за прогон распределение по каждой фазе
+ * и собственное время по стекам фаз (формат folded stacks для flame graph).
+ *
+ * <p>Включается свойством {@code profile.phases=true}; в выключенном состоянии все методы —
+ * пустые вызовы. Стек фаз ведётся в разрезе потока, поэтому параллельные тесты не мешают друг другу.</p>
+ */
+public class PhaseProfiler {
+    private static final boolean enabled = Boolean.getBoolean("profile.phases");
+    private static final ThreadLocal<Deque<Frame>> stacks = ThreadLocal.withInitial(ArrayDeque::new);
+    private static final ThreadLocal<List<Frame>> testFrames = ThreadLocal.withInitial(ArrayList::new);
+    private static final Map<String, Histogram> phases = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> selfNanosByStack = new ConcurrentHashMap<>();
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Открывает фазу в текущем потоке. Каждому begin должен соответствовать {@link #end()}
+     */
+    public static void begin(String name) {
+        if (!enabled) {
+            return;
+        }
+        Deque<Frame> stack = stacks.get();
+        Frame frame = new Frame(name.replace(';', ','), stack.size(), System.nanoTime());
+        stack.push(frame);
+        testFrames.get().add(frame);
+    }
+
+    /**
+     * Закрывает последнюю открытую фазу текущего потока
+     */
+    public static void end() {
+        if (!enabled) {
+            return;
+        }
+        Deque<Frame> stack = stacks.get();
+        if (stack.isEmpty()) {
+            return;
+        }
+        long now = System.nanoTime();
+        String path = path(stack);
+        Frame frame = stack.pop();
+        frame.durationNanos = now - frame.startNanos;
+        Frame parent = stack.peek();
+        if (parent != null) {
+            parent.childNanos += frame.durationNanos;
+        }
+        phases.computeIfAbsent(frame.name, key -> new ConcurrentHistogram(3))
+                .recordValue(TimeUnit.NANOSECONDS.toMicros(frame.durationNanos));
+        selfNanosByStack.computeIfAbsent(path, key -> new LongAdder())
+                .add(frame.durationNanos - frame.childNanos);
+    }
+
+    /**
+     * Выполняет участок кода как отдельную фазу
+     */
+    @SneakyThrows
+    public static <T> T time(String name, Callable<T> body) {
+        begin(name);
+        try {
+            return body.call();
+        } finally {
+            end();
+        }
+    }
+
+    /**
+     * Закрывает все незакрытые фазы потока (например, шаг, прерванный исключением) и возвращает
+     * фазы завершившегося теста в порядке начала
+     */
+    static List<Frame> finishTest() {
+        while (!stacks.get().isEmpty()) {
+            end();
+        }
+        List<Frame> frames = new ArrayList<>(testFrames.get());
+        testFrames.remove();
+        return frames;
+    }
+
+    /**
+     * Распределения длительности по фазам, мкс
+     */
+    static Map<String, Histogram> getPhases() {
+        return phases;
+    }
+
+    /**
+     * Собственное время по стекам фаз "Тест;Фаза;Шаг" в микросекундах, по убыванию
+     */
+    static List<Map.Entry<String, Long>> getFoldedStacks() {
+        List<Map.Entry<String, Long>> stacksMicros = new ArrayList<>();
+        selfNanosByStack.forEach((path, nanos) ->
+                stacksMicros.add(Map.entry(path, TimeUnit.NANOSECONDS.toMicros(nanos.sum()))));
+        stacksMicros.sort(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()));
+        return stacksMicros;
+    }
+
+    private static String path(Deque<Frame> stack) {
+        StringBuilder path = new StringBuilder();
+        // ArrayDeque как стек: descendingIterator идёт от корня к вершине
+        stack.descendingIterator().forEachRemaining(frame ->
+                path.append(path.length() == 0 ? "" : ";").append(frame.name));
+        return path.toString();
+    }
+
+    static class Frame {
+        final String name;
+        final int depth;
+        final long startNanos;
+        long durationNanos = -1;
+        long childNanos;
+
+        Frame(String name, int depth, long startNanos) {
+            this.name = name;
+            this.depth = depth;
+            this.startNanos = startNanos;
+        }
+    }
+}
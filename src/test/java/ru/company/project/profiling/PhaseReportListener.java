@@ -0,0 +1,129 @@
+package ru.company.project.profiling;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.model.Label;
+import io.qameta.allure.model.Status;
+import io.qameta.allure.model.TestResult;
+import lombok.SneakyThrows;
+import org.HdrHistogram.Histogram;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestPlan;
+import ru.company.project.base.BrowserPool;
+import ru.company.project.data.DBHelper;
+import ru.company.project.data.PoolStats;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Сводный профиль фаз за прогон: по окончании плана тестов записывает перцентили по фазам
+ * (build/reports/phase-profile/phases.json) и собственное время по стекам фаз в формате folded stacks
+ * (phases.folded — вход для flamegraph.pl или speedscope), а также добавляет их в Allure
+ * отдельным результатом "Профиль фаз прогона". Рядом с фазами — метрики пула соединений к БД
+ * на конец прогона ({@link DBHelper#getPoolStats()}): долгое ожидание выдачи объясняет медленные фазы.
+ * Если тесты открывали браузер, там же — сколько браузеров запущено, взято из прогрева и переиспользовано
+ * ({@link BrowserPool}): запуски при тестах — это время, которое прогрев не спрятал.
+ * Подключается через META-INF/services/org.junit.platform.launcher.TestExecutionListener.
+ */
+public class PhaseReportListener implements TestExecutionListener {
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan) {
+        if (!PhaseProfiler.isEnabled() || PhaseProfiler.getPhases().isEmpty()) {
+            return;
+        }
+        Optional<PoolStats> pool = DBHelper.getPoolStats();
+        byte[] json = phasesJson(pool);
+        byte[] folded = foldedStacks();
+        write(json, folded);
+        attachToAllure(json, folded, pool);
+    }
+
+    @SneakyThrows
+    private static byte[] phasesJson(Optional<PoolStats> pool) {
+        List<Map.Entry<String, Histogram>> phases = new ArrayList<>(PhaseProfiler.getPhases().entrySet());
+        // Фазы с наибольшим суммарным временем — первыми: с них и начинать оптимизацию
+        phases.sort((a, b) -> Double.compare(total(b.getValue()), total(a.getValue())));
+        ObjectNode root = mapper.createObjectNode();
+        ObjectNode byPhase = root.putObject("phases");
+        for (Map.Entry<String, Histogram> phase : phases) {
+            Histogram histogram = phase.getValue();
+            ObjectNode node = byPhase.putObject(phase.getKey());
+            node.put("count", histogram.getTotalCount());
+            node.put("totalMs", total(histogram) / MICROS_PER_MILLI);
+            node.put("p50Ms", histogram.getValueAtPercentile(50) / MICROS_PER_MILLI);
+            node.put("p90Ms", histogram.getValueAtPercentile(90) / MICROS_PER_MILLI);
+            node.put("p99Ms", histogram.getValueAtPercentile(99) / MICROS_PER_MILLI);
+            node.put("maxMs", histogram.getMaxValue() / MICROS_PER_MILLI);
+        }
+        pool.ifPresent(stats -> root.set("connectionPool", mapper.valueToTree(stats)));
+        if (usedBrowsers()) {
+            ObjectNode browsers = root.putObject("browsers");
+            browsers.put("launched", BrowserPool.getLaunchCount());
+            browsers.put("prewarmed", BrowserPool.getPrewarmCount());
+            browsers.put("reused", BrowserPool.getReuseCount());
+        }
+        return mapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(root);
+    }
+
+    private static boolean usedBrowsers() {
+        return BrowserPool.getLaunchCount() + BrowserPool.getPrewarmCount() + BrowserPool.getReuseCount() > 0;
+    }
+
+    private static double total(Histogram histogram) {
+        return histogram.getMean() * histogram.getTotalCount();
+    }
+
+    private static byte[] foldedStacks() {
+        StringBuilder folded = new StringBuilder();
+        for (Map.Entry<String, Long> stack : PhaseProfiler.getFoldedStacks()) {
+            folded.append(stack.getKey()).append(' ').append(stack.getValue()).append('\n');
+        }
+        return folded.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @SneakyThrows
+    private static void write(byte[] json, byte[] folded) {
+        Path dir = Paths.get(System.getProperty("profile.dir", "build/reports/phase-profile"));
+        Files.createDirectories(dir);
+        Files.write(dir.resolve("phases.json"), json);
+        Files.write(dir.resolve("phases.folded"), folded);
+    }
+
+    private static void attachToAllure(byte[] json, byte[] folded, Optional<PoolStats> pool) {
+        AllureLifecycle lifecycle = Allure.getLifecycle();
+        String uuid = UUID.randomUUID().toString();
+        lifecycle.scheduleTestCase(new TestResult()
+                .setUuid(uuid)
+                .setName("Профиль фаз прогона")
+                .setFullName("phase-profile")
+                .setHistoryId("phase-profile")
+                .setStatus(Status.PASSED)
+                .setLabels(List.of(new Label().setName("epic").setValue("Профилирование прогона"))));
+        lifecycle.startTestCase(uuid);
+        lifecycle.addAttachment("Перцентили по фазам", "application/json", "json", json);
+        lifecycle.addAttachment("Folded stacks (мкс)", "text/plain", "folded", folded);
+        pool.ifPresent(stats -> lifecycle.addAttachment("Пул соединений к БД", "text/plain", "txt",
+                stats.toString().getBytes(StandardCharsets.UTF_8)));
+        if (usedBrowsers()) {
+            lifecycle.addAttachment("Браузеры воркеров", "text/plain", "txt", String.format(
+                    "запущено при тестах: %d, взято из прогрева: %d, переиспользовано: %d",
+                    BrowserPool.getLaunchCount(), BrowserPool.getPrewarmCount(), BrowserPool.getReuseCount())
+                    .getBytes(StandardCharsets.UTF_8));
+        }
+        lifecycle.stopTestCase(uuid);
+        lifecycle.writeTestCase(uuid);
+    }
+}
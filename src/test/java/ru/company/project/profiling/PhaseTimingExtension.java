@@ -0,0 +1,134 @@
+package ru.company.project.profiling;
+
+import io.qameta.allure.Allure;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.DynamicTestInvocationContext;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.InvocationInterceptor;
+import org.junit.jupiter.api.extension.ReflectiveInvocationContext;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Фазы жизненного цикла JUnit: тест целиком (корень стека — класс теста), {@code @BeforeEach},
+ * тело теста, {@code @AfterEach}, а также {@code @BeforeAll}/{@code @AfterAll}. По окончании теста прикладывает к нему в Allure разбивку по фазам.
+ * Подключается автоматически (junit.jupiter.extensions.autodetection.enabled).
+ */
+public class PhaseTimingExtension implements BeforeEachCallback, AfterEachCallback, InvocationInterceptor {
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        if (!isFactory(context)) {
+            PhaseProfiler.begin(context.getRequiredTestClass().getSimpleName());
+        }
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        if (!isFactory(context)) {
+            attachTestPhases();
+        }
+    }
+
+    @Override
+    public void interceptBeforeAllMethod(Invocation<Void> invocation,
+                                         ReflectiveInvocationContext<Method> invocationContext,
+                                         ExtensionContext extensionContext) throws Throwable {
+        classLevel("@BeforeAll", invocation, extensionContext);
+    }
+
+    @Override
+    public void interceptAfterAllMethod(Invocation<Void> invocation,
+                                        ReflectiveInvocationContext<Method> invocationContext,
+                                        ExtensionContext extensionContext) throws Throwable {
+        classLevel("@AfterAll", invocation, extensionContext);
+    }
+
+    @Override
+    public void interceptBeforeEachMethod(Invocation<Void> invocation,
+                                          ReflectiveInvocationContext<Method> invocationContext,
+                                          ExtensionContext extensionContext) throws Throwable {
+        timed("@BeforeEach", invocation);
+    }
+
+    @Override
+    public void interceptTestMethod(Invocation<Void> invocation,
+                                    ReflectiveInvocationContext<Method> invocationContext,
+                                    ExtensionContext extensionContext) throws Throwable {
+        timed("@Test", invocation);
+    }
+
+    @Override
+    public void interceptTestTemplateMethod(Invocation<Void> invocation,
+                                            ReflectiveInvocationContext<Method> invocationContext,
+                                            ExtensionContext extensionContext) throws Throwable {
+        timed("@Test", invocation);
+    }
+
+    @Override
+    public void interceptAfterEachMethod(Invocation<Void> invocation,
+                                         ReflectiveInvocationContext<Method> invocationContext,
+                                         ExtensionContext extensionContext) throws Throwable {
+        timed("@AfterEach", invocation);
+    }
+
+    /**
+     * Динамические тесты не проходят через beforeEach/afterEach, поэтому каждый — отдельный корень.
+     * Сам {@code @TestFactory} корня не открывает, иначе корни динамических тестов вложились бы в него
+     */
+    @Override
+    public void interceptDynamicTest(Invocation<Void> invocation, DynamicTestInvocationContext invocationContext,
+                                     ExtensionContext extensionContext) throws Throwable {
+        PhaseProfiler.begin(extensionContext.getRequiredTestClass().getSimpleName());
+        try {
+            timed("@Test", invocation);
+        } finally {
+            attachTestPhases();
+        }
+    }
+
+    /**
+     * Методы уровня класса замеряются в общий профиль, но не относятся ни к одному тесту
+     */
+    private static void classLevel(String phase, Invocation<Void> invocation, ExtensionContext context)
+            throws Throwable {
+        PhaseProfiler.begin(context.getRequiredTestClass().getSimpleName());
+        try {
+            timed(phase, invocation);
+        } finally {
+            PhaseProfiler.finishTest();
+        }
+    }
+
+    private static boolean isFactory(ExtensionContext context) {
+        return context.getTestMethod().map(method -> method.isAnnotationPresent(TestFactory.class)).orElse(false);
+    }
+
+    private static void timed(String phase, Invocation<Void> invocation) throws Throwable {
+        PhaseProfiler.begin(phase);
+        try {
+            invocation.proceed();
+        } finally {
+            PhaseProfiler.end();
+        }
+    }
+
+    private static void attachTestPhases() {
+        if (!PhaseProfiler.isEnabled()) {
+            return;
+        }
+        List<PhaseProfiler.Frame> frames = PhaseProfiler.finishTest();
+        StringBuilder report = new StringBuilder();
+        for (PhaseProfiler.Frame frame : frames) {
+            double millis = frame.durationNanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+            double selfMillis = (frame.durationNanos - frame.childNanos) / (double) TimeUnit.MILLISECONDS.toNanos(1);
+            report.append(String.format("%10.2f мс  (собств. %8.2f)  %s%s%n",
+                    millis, selfMillis, "  ".repeat(frame.depth), frame.name));
+        }
+        Allure.addAttachment("Время по фазам", "text/plain", report.toString());
+    }
+}
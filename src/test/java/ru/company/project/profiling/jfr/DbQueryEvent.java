@@ -0,0 +1,21 @@
+package ru.company.project.profiling.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * SQL-запрос через соединение из {@code ConnectionPool}
+ */
+@Name("ru.company.project.DbQuery")
+@Label("DB Query")
+@Category({"AQA Shop", "Database"})
+@Description("SQL statement executed by the test harness")
+class DbQueryEvent extends jdk.jfr.Event {
+    @Label("SQL")
+    String sql;
+
+    @Label("Succeeded")
+    boolean succeeded;
+}
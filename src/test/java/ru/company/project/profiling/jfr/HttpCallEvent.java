@@ -0,0 +1,24 @@
+package ru.company.project.profiling.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * HTTP-запрос RestAssured
+ */
+@Name("ru.company.project.HttpCall")
+@Label("HTTP Call")
+@Category({"AQA Shop", "HTTP"})
+@Description("RestAssured request to the gate simulator or the application")
+class HttpCallEvent extends jdk.jfr.Event {
+    @Label("Method")
+    String method;
+
+    @Label("URI")
+    String uri;
+
+    @Label("Status Code")
+    int statusCode;
+}
@@ -0,0 +1,95 @@
+package ru.company.project.profiling.jfr;
+
+import com.codeborne.selenide.WebDriverRunner;
+import io.restassured.RestAssured;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Пользовательские события Java Flight Recorder для тестового стенда: шаги Allure, SQL-запросы,
+ * HTTP-запросы RestAssured и команды WebDriver. Вместе со стандартными событиями JFR (GC, аллокации,
+ * блокировки) позволяют понять, что происходило в JVM тестов во время медленного шага.
+ *
+ * <p>Включается свойством {@code jfr.events=true}; Gradle выставляет его вместе с
+ * {@code -XX:StartFlightRecording} при запуске с {@code -Pjfr}. Без него обёртки не ставятся.</p>
+ */
+public class JfrEvents {
+    private static final boolean enabled = Boolean.getBoolean("jfr.events");
+    private static final AtomicBoolean webDriverListenerInstalled = new AtomicBoolean();
+    private static final AtomicBoolean restAssuredFilterInstalled = new AtomicBoolean();
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Подключает слушатель команд WebDriver. Вызывается до запуска браузеров
+     */
+    public static void installWebDriverListener() {
+        if (enabled && webDriverListenerInstalled.compareAndSet(false, true)) {
+            WebDriverRunner.addListener(new JfrWebDriverListener());
+        }
+    }
+
+    /**
+     * Подключает фильтр RestAssured ко всем запросам JVM
+     */
+    public static void installRestAssuredFilter() {
+        if (enabled && restAssuredFilterInstalled.compareAndSet(false, true)) {
+            RestAssured.filters(new JfrRestAssuredFilter());
+        }
+    }
+
+    /**
+     * Оборачивает statement так, что каждый вызов execute* записывает событие с текстом SQL
+     *
+     * @param statement  Statement, PreparedStatement или CallableStatement
+     * @param type       интерфейс, под которым statement возвращается вызывающему коду
+     * @param preparedSql SQL подготовленного запроса или null для обычного Statement
+     */
+    public static Statement traced(Statement statement, Class<?> type, String preparedSql) {
+        return (Statement) Proxy.newProxyInstance(JfrEvents.class.getClassLoader(), new Class<?>[]{type},
+                new TracedStatementHandler(statement, preparedSql));
+    }
+
+    private static final class TracedStatementHandler implements InvocationHandler {
+        private final Statement statement;
+        private final String preparedSql;
+
+        private TracedStatementHandler(Statement statement, String preparedSql) {
+            this.statement = statement;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (!method.getName().startsWith("execute")) {
+                return invokeTarget(method, args);
+            }
+            DbQueryEvent event = new DbQueryEvent();
+            event.sql = preparedSql != null ? preparedSql
+                    : args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+            event.begin();
+            try {
+                Object result = invokeTarget(method, args);
+                event.succeeded = true;
+                return result;
+            } finally {
+                event.commit();
+            }
+        }
+
+        private Object invokeTarget(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package ru.company.project.profiling.jfr;
+
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import org.junit.platform.launcher.LauncherSession;
+import org.junit.platform.launcher.LauncherSessionListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Сохраняет запись JFR форка по окончании сессии JUnit в {@code <jfr.dir>/<jfr.name>-w<воркер>-<pid>.jfr}.
+ *
+ * <p>Запись запускается при старте JVM ({@code -XX:StartFlightRecording=name=aqa-tests}, см. {@code -Pjfr}),
+ * но имя файла задаётся здесь: подстановка {@code %p} в {@code filename} появилась только в JDK 17, а Gradle
+ * передаёт всем форкам одинаковые аргументы JVM — без этого форки перезаписывали бы один файл.
+ * Подключается через META-INF/services/org.junit.platform.launcher.LauncherSessionListener.</p>
+ */
+public class JfrRecordingDump implements LauncherSessionListener {
+    /** Имя записи в {@code -XX:StartFlightRecording} */
+    private static final String RECORDING = "aqa-tests";
+
+    @Override
+    public void launcherSessionClosed(LauncherSession session) {
+        String dir = System.getProperty("jfr.dir");
+        if (dir == null || !FlightRecorder.isInitialized()) {
+            return;
+        }
+        Path file = Paths.get(dir, System.getProperty("jfr.name", "test")
+                + "-w" + System.getProperty("org.gradle.test.worker", "0")
+                + "-" + ProcessHandle.current().pid() + ".jfr");
+        for (Recording recording : FlightRecorder.getFlightRecorder().getRecordings()) {
+            if (RECORDING.equals(recording.getName())) {
+                try {
+                    Files.createDirectories(file.getParent());
+                    recording.dump(file);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Не удалось сохранить запись JFR в " + file, e);
+                }
+            }
+        }
+    }
+}
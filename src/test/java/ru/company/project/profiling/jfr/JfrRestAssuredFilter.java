@@ -0,0 +1,29 @@
+package ru.company.project.profiling.jfr;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+/**
+ * Событие JFR на каждый запрос RestAssured
+ */
+class JfrRestAssuredFilter implements Filter {
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        HttpCallEvent event = new HttpCallEvent();
+        event.method = requestSpec.getMethod();
+        event.uri = requestSpec.getURI();
+        event.begin();
+        try {
+            Response response = ctx.next(requestSpec, responseSpec);
+            event.statusCode = response.getStatusCode();
+            return response;
+        } finally {
+            event.commit();
+        }
+    }
+}
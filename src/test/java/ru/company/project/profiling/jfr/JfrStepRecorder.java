@@ -0,0 +1,33 @@
+package ru.company.project.profiling.jfr;
+
+import io.qameta.allure.listener.StepLifecycleListener;
+import io.qameta.allure.model.StepResult;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Событие JFR на каждый шаг Allure. Подключается через META-INF/services/io.qameta.allure.listener.LifecycleListener.
+ */
+public class JfrStepRecorder implements StepLifecycleListener {
+    private static final ThreadLocal<Deque<StepEvent>> open = ThreadLocal.withInitial(ArrayDeque::new);
+
+    @Override
+    public void beforeStepStart(StepResult result) {
+        if (!JfrEvents.isEnabled()) {
+            return;
+        }
+        StepEvent event = new StepEvent();
+        event.name = result.getName();
+        event.begin();
+        open.get().push(event);
+    }
+
+    @Override
+    public void afterStepStop(StepResult result) {
+        StepEvent event = open.get().poll();
+        if (event != null) {
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package ru.company.project.profiling.jfr;
+
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Событие JFR на каждый вызов WebDriver. Вызовы могут быть вложенными (элемент внутри
+ * навигации), поэтому открытые события хранятся стеком потока.
+ */
+class JfrWebDriverListener implements WebDriverListener {
+    private static final ThreadLocal<Deque<WebDriverCommandEvent>> open = ThreadLocal.withInitial(ArrayDeque::new);
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        WebDriverCommandEvent event = new WebDriverCommandEvent();
+        event.target = method.getDeclaringClass().getSimpleName();
+        event.command = method.getName();
+        event.begin();
+        open.get().push(event);
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        finish(true);
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        finish(false);
+    }
+
+    private static void finish(boolean succeeded) {
+        WebDriverCommandEvent event = open.get().poll();
+        if (event != null) {
+            event.succeeded = succeeded;
+            event.commit();
+        }
+    }
+}
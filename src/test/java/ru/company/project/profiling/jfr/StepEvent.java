@@ -0,0 +1,18 @@
+package ru.company.project.profiling.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Шаг Allure: {@code @Step} страницы или команда Selenide
+ */
+@Name("ru.company.project.Step")
+@Label("Test Step")
+@Category({"AQA Shop", "Tests"})
+@Description("Allure step executed by a test")
+class StepEvent extends jdk.jfr.Event {
+    @Label("Step")
+    String name;
+}
@@ -0,0 +1,24 @@
+package ru.company.project.profiling.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Вызов WebDriver (драйвер, элемент, навигация, окна)
+ */
+@Name("ru.company.project.WebDriverCommand")
+@Label("WebDriver Command")
+@Category({"AQA Shop", "WebDriver"})
+@Description("Command sent to the browser through WebDriver")
+class WebDriverCommandEvent extends jdk.jfr.Event {
+    @Label("Target")
+    String target;
+
+    @Label("Command")
+    String command;
+
+    @Label("Succeeded")
+    boolean succeeded;
+}
@@ -0,0 +1,118 @@
+package ru.company.project.proxy;
+
+import lombok.SneakyThrows;
+
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Прокси неисправностей текущего форка по именам звеньев ({@code gate}, {@code db}).
+ *
+ * <p>При {@code proxy.enabled=true} {@link ru.company.project.base.ShopApp} запускает приложение
+ * с адресами банка и БД, проведёнными через прокси ({@link #route(String, String)}), и тесты
+ * управляют неисправностями через {@code FaultProxies.get("gate").faults()}. Для приложения,
+ * запущенного вручную, звенья из {@code proxy.links} поднимаются на фиксированных портах:
+ * {@code proxy.<звено>.port} и {@code proxy.<звено>.target=host:port}.</p>
+ */
+public class FaultProxies {
+    private static final boolean enabled = Boolean.getBoolean("proxy.enabled");
+    private static final Map<String, FaultProxy> proxies = new ConcurrentHashMap<>();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(
+                () -> proxies.values().forEach(FaultProxy::close), "fault-proxy-stop"));
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Прокси звена; если он ещё не запущен — запускает по свойствам {@code proxy.<звено>.*}
+     */
+    public static FaultProxy get(String link) {
+        return proxies.computeIfAbsent(link, key -> start(key,
+                Integer.getInteger("proxy." + key + ".port", 0),
+                parseAddress(required("proxy." + key + ".target"), 0)));
+    }
+
+    /**
+     * Проводит адрес через прокси звена: запускает прокси к хосту и порту адреса
+     * и возвращает тот же адрес с хостом и портом прокси.
+     *
+     * @param url адрес вида {@code jdbc:mysql://host:port/db} или {@code http://host:port/path}
+     */
+    public static String route(String link, String url) {
+        int schemeEnd = url.indexOf("://");
+        if (schemeEnd < 0) {
+            throw new IllegalArgumentException("Не удалось выделить хост и порт из адреса: " + url);
+        }
+        int authorityStart = schemeEnd + 3;
+        int authorityEnd = authorityStart;
+        while (authorityEnd < url.length() && "/?;".indexOf(url.charAt(authorityEnd)) < 0) {
+            authorityEnd++;
+        }
+        InetSocketAddress target = parseAddress(url.substring(authorityStart, authorityEnd), defaultPort(url));
+        FaultProxy proxy = proxies.computeIfAbsent(link, key ->
+                start(key, Integer.getInteger("proxy." + key + ".port", 0), target));
+        return url.substring(0, authorityStart) + "127.0.0.1:" + proxy.getPort() + url.substring(authorityEnd);
+    }
+
+    /**
+     * Запускает звенья, перечисленные через запятую в {@code proxy.links}
+     */
+    public static void startConfigured() {
+        for (String link : System.getProperty("proxy.links", "").split(",")) {
+            if (!link.isBlank()) {
+                get(link.trim());
+            }
+        }
+    }
+
+    /**
+     * Снимает неисправности со всех звеньев — для {@code @AfterEach}
+     *
+     * @throws IllegalStateException если прокси какого-либо звена остановился из-за ошибки
+     */
+    public static void resetFaults() {
+        for (FaultProxy proxy : proxies.values()) {
+            proxy.faults().reset();
+            if (proxy.getFailure() != null) {
+                throw new IllegalStateException("Прокси " + proxy.getName() + " остановлен из-за ошибки",
+                        proxy.getFailure());
+            }
+        }
+    }
+
+    @SneakyThrows
+    private static FaultProxy start(String link, int port, InetSocketAddress target) {
+        return new FaultProxy(link, port, target);
+    }
+
+    private static InetSocketAddress parseAddress(String hostPort, int defaultPort) {
+        int colon = hostPort.lastIndexOf(':');
+        if (colon < 0) {
+            return new InetSocketAddress(hostPort, defaultPort);
+        }
+        return new InetSocketAddress(hostPort.substring(0, colon), Integer.parseInt(hostPort.substring(colon + 1)));
+    }
+
+    private static int defaultPort(String url) {
+        if (url.startsWith("jdbc:mysql:")) {
+            return 3306;
+        }
+        if (url.startsWith("jdbc:postgresql:")) {
+            return 5432;
+        }
+        return url.startsWith("https:") ? 443 : 80;
+    }
+
+    private static String required(String property) {
+        String value = System.getProperty(property);
+        if (value == null) {
+            throw new IllegalStateException("Не задано свойство " + property);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,511 @@
+package ru.company.project.proxy;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Локальный TCP-прокси с инжекцией неисправностей между приложением и его зависимостями
+ * (банк на 9999, MySQL на 3306, PostgreSQL на 5432). Неисправности — задержка, ограничение
+ * пропускной способности, остановка передачи и сброс соединений — настраиваются во время теста
+ * через {@link #faults()} и {@link #resetConnections()}.
+ *
+ * <p>Все соединения обслуживает один поток на {@link Selector}. Пока неисправностей нет, данные
+ * пересылаются из сокета в сокет через один переиспользуемый direct-буфер на направление: байты
+ * не попадают в кучу JVM и не копируются между буферами. Полного zero-copy между двумя сокетами
+ * в Java нет ({@code transferTo} работает только из файла, аналога splice нет), поэтому это
+ * ближайший возможный путь: ядро → direct-буфер → ядро. Только задержанные порции копируются
+ * в очередь с моментом отправки.</p>
+ *
+ * <p>Прокси слушает только loopback-интерфейс. Соединение с целью открывается при приёме клиента;
+ * если цель недоступна, клиент получает сброс.</p>
+ */
+public class FaultProxy implements AutoCloseable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    /** Минимальная порция чтения при ограничении пропускной способности */
+    private static final int MIN_READ = 1024;
+    /** При таком объёме задержанных данных чтение источника приостанавливается до их отправки */
+    private static final int MAX_DELAYED_BYTES = 4 * 1024 * 1024;
+
+    private final String name;
+    private final InetSocketAddress target;
+    private final Selector selector;
+    private final ServerSocketChannel server;
+    private final LinkFaults faults;
+    private final Thread loop;
+    /** Только для потока прокси */
+    private final List<Connection> connections = new ArrayList<>();
+    private final AtomicBoolean resetRequested = new AtomicBoolean();
+    private volatile boolean closed;
+    /** Ошибка, из-за которой остановился поток прокси */
+    private volatile Exception failure;
+
+    private final AtomicLong acceptedCount = new AtomicLong();
+    private final AtomicLong resetCount = new AtomicLong();
+    private final AtomicLong upstreamBytes = new AtomicLong();
+    private final AtomicLong downstreamBytes = new AtomicLong();
+    private volatile int openConnections;
+
+    /**
+     * Запускает прокси
+     *
+     * @param name       имя звена (для имени потока и отчётов)
+     * @param listenPort порт на loopback-интерфейсе (0 — любой свободный)
+     * @param target     адрес, куда пересылаются соединения
+     */
+    public FaultProxy(String name, int listenPort, InetSocketAddress target) throws IOException {
+        this.name = name;
+        this.target = target;
+        this.selector = Selector.open();
+        this.server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), listenPort));
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+        this.faults = new LinkFaults(selector::wakeup);
+        this.loop = new Thread(this::run, "fault-proxy-" + name);
+        loop.setDaemon(true);
+        loop.start();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Порт, на котором прокси принимает соединения
+     */
+    public int getPort() {
+        return server.socket().getLocalPort();
+    }
+
+    public InetSocketAddress getTarget() {
+        return target;
+    }
+
+    /**
+     * Неисправности звена; действуют на все текущие и новые соединения
+     */
+    public LinkFaults faults() {
+        return faults;
+    }
+
+    /**
+     * Обрывает сбросом (RST) все открытые соединения — как при падении сети или перезапуске цели
+     */
+    public void resetConnections() {
+        resetRequested.set(true);
+        selector.wakeup();
+    }
+
+    public long getAcceptedConnections() {
+        return acceptedCount.get();
+    }
+
+    public int getOpenConnections() {
+        return openConnections;
+    }
+
+    public long getResetConnections() {
+        return resetCount.get();
+    }
+
+    /**
+     * Ошибка, из-за которой прокси перестал пересылать данные, или null, если он работает
+     * или остановлен штатно
+     */
+    public Exception getFailure() {
+        return failure;
+    }
+
+    /**
+     * Байт передано от клиентов к цели
+     */
+    public long getUpstreamBytes() {
+        return upstreamBytes.get();
+    }
+
+    /**
+     * Байт передано от цели к клиентам
+     */
+    public long getDownstreamBytes() {
+        return downstreamBytes.get();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        selector.wakeup();
+        try {
+            loop.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        try {
+            while (!closed) {
+                long waitNanos = service(System.nanoTime());
+                if (waitNanos < 0) {
+                    selector.select();
+                } else {
+                    selector.select(Math.max(1, TimeUnit.NANOSECONDS.toMillis(waitNanos)));
+                }
+                if (resetRequested.getAndSet(false)) {
+                    connections.forEach(Connection::reset);
+                }
+                long now = System.nanoTime();
+                for (Iterator<SelectionKey> keys = selector.selectedKeys().iterator(); keys.hasNext(); ) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                    } else {
+                        ((Connection) key.attachment()).onReady(key, now);
+                    }
+                }
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            if (!closed) {
+                failure = e;
+            }
+        } finally {
+            connections.forEach(Connection::close);
+            closeQuietly(server);
+            closeQuietly(selector);
+        }
+    }
+
+    /**
+     * Отправляет подошедшие по времени данные, обновляет интересующие события сокетов
+     * и убирает закрытые соединения.
+     *
+     * @return сколько можно ждать событий до ближайшего таймера, нс; -1 — таймеров нет
+     */
+    private long service(long now) {
+        long wait = -1;
+        for (Iterator<Connection> it = connections.iterator(); it.hasNext(); ) {
+            Connection connection = it.next();
+            long connectionWait = connection.service(now);
+            if (connection.closed) {
+                it.remove();
+            } else if (connectionWait >= 0) {
+                wait = wait < 0 ? connectionWait : Math.min(wait, connectionWait);
+            }
+        }
+        openConnections = connections.size();
+        return wait;
+    }
+
+    private void accept() throws IOException {
+        SocketChannel client = server.accept();
+        if (client == null) {
+            return;
+        }
+        acceptedCount.incrementAndGet();
+        SocketChannel upstream;
+        try {
+            // Цель локальная: соединение устанавливается или отвергается сразу
+            upstream = SocketChannel.open(target);
+        } catch (IOException e) {
+            abort(client);
+            return;
+        }
+        connections.add(new Connection(client, upstream));
+    }
+
+    /**
+     * Закрывает сокет сбросом (RST) вместо штатного FIN
+     */
+    private static void abort(SocketChannel channel) {
+        try {
+            channel.setOption(StandardSocketOptions.SO_LINGER, 0);
+        } catch (IOException ignored) {
+            // Сокет уже закрыт
+        }
+        closeQuietly(channel);
+    }
+
+    private static void closeQuietly(AutoCloseable resource) {
+        try {
+            resource.close();
+        } catch (Exception ignored) {
+            // Закрытие при остановке: ошибка не важна
+        }
+    }
+
+    /**
+     * Пара сокетов клиент — цель и два направления передачи между ними
+     */
+    private final class Connection {
+        private final SocketChannel client;
+        private final SocketChannel upstream;
+        private final SelectionKey clientKey;
+        private final SelectionKey upstreamKey;
+        private final Pipe up;
+        private final Pipe down;
+        private boolean closed;
+
+        private Connection(SocketChannel client, SocketChannel upstream) throws IOException {
+            this.client = client;
+            this.upstream = upstream;
+            for (SocketChannel channel : List.of(client, upstream)) {
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            }
+            this.up = new Pipe(client, upstream, upstreamBytes);
+            this.down = new Pipe(upstream, client, downstreamBytes);
+            this.clientKey = client.register(selector, SelectionKey.OP_READ, this);
+            this.upstreamKey = upstream.register(selector, SelectionKey.OP_READ, this);
+        }
+
+        private void onReady(SelectionKey key, long now) {
+            boolean fromClient = key == clientKey;
+            Pipe reading = fromClient ? up : down;
+            Pipe writing = fromClient ? down : up;
+            try {
+                if (key.isWritable()) {
+                    writing.flush(now);
+                }
+                if (key.isValid() && key.isReadable() && !reading.read(now)) {
+                    reset();
+                }
+            } catch (IOException e) {
+                // Одна из сторон оборвала соединение: вторая получает сброс, а не штатное завершение (FIN)
+                abort();
+            }
+        }
+
+        private long service(long now) {
+            if (closed) {
+                return -1;
+            }
+            try {
+                up.flush(now);
+                down.flush(now);
+                if (up.isDone() && down.isDone()) {
+                    close();
+                    return -1;
+                }
+                clientKey.interestOps((up.wantsRead(now) ? SelectionKey.OP_READ : 0)
+                        | (down.isBlocked() ? SelectionKey.OP_WRITE : 0));
+                upstreamKey.interestOps((down.wantsRead(now) ? SelectionKey.OP_READ : 0)
+                        | (up.isBlocked() ? SelectionKey.OP_WRITE : 0));
+                long upWait = up.nextWakeUp(now);
+                long downWait = down.nextWakeUp(now);
+                return upWait < 0 ? downWait : downWait < 0 ? upWait : Math.min(upWait, downWait);
+            } catch (IOException e) {
+                abort();
+                return -1;
+            }
+        }
+
+        private void reset() {
+            if (!closed) {
+                resetCount.incrementAndGet();
+                abort();
+            }
+        }
+
+        /**
+         * Обрывает обе стороны сбросом (RST); в счётчик сбросов не попадает
+         */
+        private void abort() {
+            FaultProxy.abort(client);
+            FaultProxy.abort(upstream);
+            close();
+        }
+
+        private void close() {
+            closed = true;
+            closeQuietly(client);
+            closeQuietly(upstream);
+        }
+    }
+
+    /**
+     * Одно направление передачи: чтение из источника, отправка в приёмник
+     */
+    private final class Pipe {
+        private final SocketChannel source;
+        private final SocketChannel sink;
+        private final AtomicLong transferred;
+        /** Прямая пересылка без задержки: прочитанное и ещё не отправленное */
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private boolean pending;
+        /** Задержанные порции в порядке чтения */
+        private final Deque<Chunk> delayed = new ArrayDeque<>();
+        private long delayedBytes;
+        /** Приёмник не принял всё: ждём OP_WRITE */
+        private boolean blocked;
+        private boolean sourceEof;
+        private boolean sinkShut;
+        private double tokens = MIN_READ;
+        private long refilledAt = System.nanoTime();
+        private int bandwidthGeneration;
+
+        private Pipe(SocketChannel source, SocketChannel sink, AtomicLong transferred) {
+            this.source = source;
+            this.sink = sink;
+            this.transferred = transferred;
+        }
+
+        /**
+         * @return false, если по неисправности соединение нужно сбросить
+         */
+        private boolean read(long now) throws IOException {
+            if (pending) {
+                // Буфер ещё занят неотправленными данными
+                return true;
+            }
+            long rate = throttle(now);
+            int limit = BUFFER_SIZE;
+            if (rate > 0) {
+                limit = (int) Math.min(limit, tokens);
+                if (limit <= 0) {
+                    return true;
+                }
+            }
+            buffer.clear().limit(limit);
+            int read = source.read(buffer);
+            if (read < 0) {
+                sourceEof = true;
+                return true;
+            }
+            if (read == 0) {
+                return true;
+            }
+            if (faults.nextIsReset()) {
+                return false;
+            }
+            transferred.addAndGet(read);
+            if (rate > 0) {
+                tokens -= read;
+            }
+            buffer.flip();
+            long latencyMillis = faults.nextLatencyMillis();
+            if (latencyMillis > 0 || !delayed.isEmpty()) {
+                ByteBuffer copy = ByteBuffer.allocate(read);
+                copy.put(buffer).flip();
+                delayed.addLast(new Chunk(copy, now + TimeUnit.MILLISECONDS.toNanos(latencyMillis)));
+                delayedBytes += read;
+                buffer.clear();
+            } else {
+                pending = true;
+            }
+            flush(now);
+            return true;
+        }
+
+        /**
+         * Отправляет прочитанное и подошедшие по времени задержанные порции, пока приёмник их принимает
+         */
+        private void flush(long now) throws IOException {
+            if (pending) {
+                sink.write(buffer);
+                if (buffer.hasRemaining()) {
+                    blocked = true;
+                    return;
+                }
+                pending = false;
+            }
+            Chunk head;
+            while ((head = delayed.peekFirst()) != null && head.dueNanos - now <= 0) {
+                sink.write(head.data);
+                if (head.data.hasRemaining()) {
+                    blocked = true;
+                    return;
+                }
+                delayedBytes -= head.data.capacity();
+                delayed.pollFirst();
+            }
+            blocked = false;
+            if (sourceEof && delayed.isEmpty() && !sinkShut) {
+                // Полузакрытие передаётся дальше: приёмник получает EOF после всех данных
+                sink.shutdownOutput();
+                sinkShut = true;
+            }
+        }
+
+        private boolean wantsRead(long now) {
+            if (sourceEof || pending || faults.isStalled() || delayedBytes >= MAX_DELAYED_BYTES) {
+                return false;
+            }
+            return throttle(now) <= 0 || tokens >= MIN_READ;
+        }
+
+        private boolean isBlocked() {
+            return blocked;
+        }
+
+        private boolean isDone() {
+            return sourceEof && sinkShut;
+        }
+
+        /**
+         * @return через сколько наносекунд направлению нужно внимание без событий сокетов; -1 — не нужно
+         */
+        private long nextWakeUp(long now) {
+            long wait = -1;
+            Chunk head = delayed.peekFirst();
+            if (head != null && !blocked) {
+                wait = Math.max(0, head.dueNanos - now);
+            }
+            long rate = faults.getBytesPerSecond();
+            if (rate > 0 && !sourceEof && !faults.isStalled() && tokens < MIN_READ) {
+                long refillWait = (long) ((MIN_READ - tokens) * TimeUnit.SECONDS.toNanos(1) / rate);
+                wait = wait < 0 ? refillWait : Math.min(wait, refillWait);
+            }
+            return wait;
+        }
+
+        /**
+         * Текущее ограничение скорости (0 — без ограничения) с пополнением запаса байт по нему.
+         * Запас ограничен 1/20 секунды передачи, но не меньше порции; при смене ограничения
+         * учёт начинается заново, чтобы переданное до него не превращалось в долг
+         */
+        private long throttle(long now) {
+            // Поколение читается раньше скорости: при гонке со сменой сброс случится на следующем вызове
+            int generation = faults.getBandwidthGeneration();
+            long rate = faults.getBytesPerSecond();
+            if (generation != bandwidthGeneration) {
+                bandwidthGeneration = generation;
+                tokens = MIN_READ;
+                refilledAt = now;
+            } else if (rate > 0) {
+                double burst = Math.max(MIN_READ, rate / 20.0);
+                tokens = Math.min(burst, tokens + (now - refilledAt) * rate / (double) TimeUnit.SECONDS.toNanos(1));
+                refilledAt = now;
+            }
+            return rate;
+        }
+    }
+
+    private static final class Chunk {
+        private final ByteBuffer data;
+        private final long dueNanos;
+
+        private Chunk(ByteBuffer data, long dueNanos) {
+            this.data = data;
+            this.dueNanos = dueNanos;
+        }
+    }
+}
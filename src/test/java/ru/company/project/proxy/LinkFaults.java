@@ -0,0 +1,107 @@
+package ru.company.project.proxy;
+
+import ru.company.project.gate.LatencyDistribution;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Неисправности одного соединения-звена {@link FaultProxy} (например, приложение → банк).
+ * Поля изменяются во время работы теста и сразу действуют на данные, которые прокси читает после этого.
+ */
+public class LinkFaults {
+    private final Runnable onChange;
+    private volatile LatencyDistribution latency = LatencyDistribution.none();
+    private volatile long bytesPerSecond;
+    /** Меняется при каждой смене ограничения скорости: направления начинают учёт запаса байт заново */
+    private volatile int bandwidthGeneration;
+    private volatile boolean stalled;
+    private volatile double resetRate;
+
+    LinkFaults(Runnable onChange) {
+        this.onChange = onChange;
+    }
+
+    /**
+     * Задержка каждой порции данных в обоих направлениях. Порядок байтов сохраняется:
+     * порция не обгоняет предыдущую, даже если её задержка меньше
+     */
+    public LinkFaults latency(LatencyDistribution latency) {
+        this.latency = latency;
+        return changed();
+    }
+
+    /**
+     * Ограничение пропускной способности каждого направления каждого соединения, байт в секунду (0 — без ограничения).
+     * Данные читаются порциями от 1 КБ, поэтому на малых скоростях короткие сообщения ждут целую порцию
+     */
+    public LinkFaults bandwidth(long bytesPerSecond) {
+        this.bytesPerSecond = bytesPerSecond;
+        bandwidthGeneration++;
+        return changed();
+    }
+
+    /**
+     * Останавливает передачу: прокси перестаёт читать сокеты, отправители упираются в буферы TCP
+     * и ждут, как при потере пакетов. Соединения при этом остаются открытыми
+     */
+    public LinkFaults stall() {
+        this.stalled = true;
+        return changed();
+    }
+
+    /**
+     * Возобновляет передачу после {@link #stall()}
+     */
+    public LinkFaults resume() {
+        this.stalled = false;
+        return changed();
+    }
+
+    /**
+     * Доля порций данных (от 0 до 1), на которых соединение обрывается сбросом (RST) в обе стороны
+     */
+    public LinkFaults resets(double rate) {
+        this.resetRate = rate;
+        return changed();
+    }
+
+    /**
+     * Сбрасывает все неисправности звена
+     */
+    public LinkFaults reset() {
+        latency = LatencyDistribution.none();
+        bytesPerSecond = 0;
+        bandwidthGeneration++;
+        stalled = false;
+        resetRate = 0;
+        return changed();
+    }
+
+    /**
+     * Поток прокси может спать до следующего таймера: изменение настроек будит его
+     */
+    private LinkFaults changed() {
+        onChange.run();
+        return this;
+    }
+
+    long nextLatencyMillis() {
+        return latency.nextMillis();
+    }
+
+    long getBytesPerSecond() {
+        return bytesPerSecond;
+    }
+
+    int getBandwidthGeneration() {
+        return bandwidthGeneration;
+    }
+
+    boolean isStalled() {
+        return stalled;
+    }
+
+    boolean nextIsReset() {
+        return resetRate > 0 && ThreadLocalRandom.current().nextDouble() < resetRate;
+    }
+}
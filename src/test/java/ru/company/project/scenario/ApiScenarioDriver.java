@@ -0,0 +1,30 @@
+package ru.company.project.scenario;
+
+import ru.company.project.api.ApiCardForm;
+import ru.company.project.api.PurchaseMode;
+
+/**
+ * Сценарий без браузера: форма отправляется в REST API приложения, проверяется только БД.
+ * Сценарии, которые отсекает клиентская валидация формы, пропускаются.
+ */
+public class ApiScenarioDriver implements ScenarioDriver {
+
+    @Override
+    public String getName() {
+        return "api";
+    }
+
+    @Override
+    public boolean supports(Scenario scenario) {
+        return scenario.getUi().reachesServer();
+    }
+
+    @Override
+    public void run(Scenario scenario, PurchaseMode mode) {
+        ApiCardForm cardForm = new ApiCardForm(mode);
+        cardForm.fillingCardForm(scenario.getCard(), scenario.getMonth(), scenario.getYear(),
+                scenario.getHolder(), scenario.getCvc());
+        cardForm.submit();
+        scenario.getDb().verify(mode);
+    }
+}
@@ -0,0 +1,51 @@
+package ru.company.project.scenario;
+
+import io.qameta.allure.Step;
+import ru.company.project.api.PurchaseMode;
+import ru.company.project.data.DBHelper;
+import ru.company.project.data.DbSnapshot;
+import ru.company.project.data.StatusAwaiter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static ru.company.project.data.CardTestData.STATUS_APPROVED;
+import static ru.company.project.data.CardTestData.STATUS_DECLINED;
+
+/**
+ * Ожидаемый след операции в БД.
+ */
+public enum DbEffect {
+    /** Операция записана со статусом APPROVED */
+    APPROVED(STATUS_APPROVED),
+    /** Операция записана со статусом DECLINED */
+    DECLINED(STATUS_DECLINED),
+    /** Заказ не создан */
+    NO_ORDER(null);
+
+    private final String status;
+
+    DbEffect(String status) {
+        this.status = status;
+    }
+
+    /**
+     * Проверяет БД после отправки формы способом {@code mode}
+     */
+    @Step("Проверка записи в БД: {mode}")
+    public void verify(PurchaseMode mode) {
+        if (status != null) {
+            // Приложение пишет операцию асинхронно: снимок читается после появления строки
+            if (mode == PurchaseMode.PAYMENT) {
+                StatusAwaiter.awaitPaymentStatus();
+            } else {
+                StatusAwaiter.awaitCreditStatus();
+            }
+        }
+        DbSnapshot snapshot = DBHelper.getSnapshot();
+        if (status == null) {
+            assertEquals(0, snapshot.getOrderCount(), "Заказ не должен создаваться");
+            return;
+        }
+        String actual = mode == PurchaseMode.PAYMENT ? snapshot.getPaymentStatus() : snapshot.getCreditStatus();
+        assertEquals(status, actual, "Статус операции " + mode.getTitle().toLowerCase() + " в БД");
+    }
+}
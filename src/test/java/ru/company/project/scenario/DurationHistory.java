@@ -0,0 +1,99 @@
+package ru.company.project.scenario;
+
+import lombok.SneakyThrows;
+
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Длительности сценариев по прошлым прогонам — основа для порядка запуска в {@link ScenarioEngine}.
+ *
+ * <p>Хранится в properties-файле (по умолчанию build/scenario-durations.properties): ключ — драйвер,
+ * сценарий и способ покупки, значение — миллисекунды. Новое значение сглаживается с прошлым
+ * (среднее), чтобы единичный медленный прогон не переворачивал порядок.</p>
+ */
+public class DurationHistory {
+    private final Path file;
+    private final Map<String, Long> previous = new ConcurrentHashMap<>();
+    private final Map<String, Long> recorded = new ConcurrentHashMap<>();
+    private final long unknownEstimate;
+    private static DurationHistory shared;
+
+    @SneakyThrows
+    private DurationHistory(Path file) {
+        this.file = file;
+        if (Files.exists(file)) {
+            Properties properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(file)) {
+                properties.load(reader);
+            }
+            for (String key : properties.stringPropertyNames()) {
+                try {
+                    previous.put(key, Long.parseLong(properties.getProperty(key)));
+                } catch (NumberFormatException ignored) {
+                    // Повреждённая запись — сценарий считается новым
+                }
+            }
+        }
+        // Сценарий без истории считается самым долгим: лучше запустить его раньше, чем оставить в хвосте
+        this.unknownEstimate = previous.values().stream().mapToLong(Long::longValue).max().orElse(0);
+    }
+
+    /**
+     * Загружает историю из файла; отсутствующий файл — пустая история
+     */
+    public static DurationHistory load(Path file) {
+        return new DurationHistory(file);
+    }
+
+    /**
+     * История по свойству {@code scenario.history}. Одна на JVM: наборы, сохраняющие её по очереди,
+     * не перезаписывают записи друг друга
+     */
+    public static synchronized DurationHistory fromSystemProperties() {
+        if (shared == null) {
+            shared = load(Path.of(System.getProperty("scenario.history", "build/scenario-durations.properties")));
+        }
+        return shared;
+    }
+
+    /**
+     * Ожидаемая длительность сценария, мс
+     */
+    public long expectedMillis(String key) {
+        return previous.getOrDefault(key, unknownEstimate);
+    }
+
+    /**
+     * Запоминает фактическую длительность сценария в текущем прогоне
+     */
+    public void record(String key, long millis) {
+        recorded.put(key, millis);
+    }
+
+    /**
+     * Записывает историю в файл с учётом длительностей текущего прогона
+     */
+    @SneakyThrows
+    public synchronized void save() {
+        if (recorded.isEmpty()) {
+            return;
+        }
+        Map<String, Long> merged = new TreeMap<>(previous);
+        recorded.forEach((key, millis) -> merged.merge(key, millis, (old, current) -> (old + current) / 2));
+        Properties properties = new Properties();
+        merged.forEach((key, millis) -> properties.setProperty(key, String.valueOf(millis)));
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            properties.store(writer, "Scenario durations, ms");
+        }
+    }
+}
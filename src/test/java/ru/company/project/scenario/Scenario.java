@@ -0,0 +1,27 @@
+package ru.company.project.scenario;
+
+import lombok.Value;
+
+/**
+ * Строка таблицы сценариев формы карты: входные данные и ожидаемый результат,
+ * общие для оплаты и кредита.
+ *
+ * <p>Месяц и год задаются так же, как в {@code CardPage#fillingCardForm}: смещением
+ * от текущей даты ({@code CURRENT_MONTH + 2}) или строкой как есть.</p>
+ */
+@Value
+public class Scenario {
+    /** Стабильный идентификатор, ключ истории длительностей */
+    String id;
+    /** Название сценария в отчёте */
+    String title;
+    /** Allure Story */
+    String story;
+    String card;
+    Object month;
+    Object year;
+    String holder;
+    String cvc;
+    UiOutcome ui;
+    DbEffect db;
+}
@@ -0,0 +1,39 @@
+package ru.company.project.scenario;
+
+import ru.company.project.api.PurchaseMode;
+
+/**
+ * Способ выполнения сценария: через браузер или через REST API приложения.
+ */
+public interface ScenarioDriver {
+
+    /**
+     * Имя драйвера в отчёте и в истории длительностей
+     */
+    String getName();
+
+    /**
+     * true, если драйвер может проверить результат сценария
+     */
+    boolean supports(Scenario scenario);
+
+    /**
+     * Выполняет сценарий и проверяет его результат
+     */
+    void run(Scenario scenario, PurchaseMode mode);
+
+    /**
+     * Драйвер по свойству {@code scenario.driver}: ui (по умолчанию) или api
+     */
+    static ScenarioDriver fromSystemProperties() {
+        String name = System.getProperty("scenario.driver", "ui");
+        switch (name) {
+            case "ui":
+                return new UiScenarioDriver();
+            case "api":
+                return new ApiScenarioDriver();
+            default:
+                throw new IllegalArgumentException("Неизвестный scenario.driver: " + name + " (ожидается ui или api)");
+        }
+    }
+}
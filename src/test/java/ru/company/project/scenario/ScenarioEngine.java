@@ -0,0 +1,83 @@
+package ru.company.project.scenario;
+
+import io.qameta.allure.Allure;
+import org.junit.jupiter.api.DynamicTest;
+import ru.company.project.api.PurchaseMode;
+import ru.company.project.data.DBHelper;
+import ru.company.project.data.DataScope;
+import ru.company.project.proxy.FaultProxies;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Раскладывает таблицу сценариев на оба способа покупки и выдаёт их JUnit как динамические тесты.
+ *
+ * <p>Сценарии выдаются от самых долгих по истории прошлых прогонов к самым коротким. Параллельный
+ * исполнитель JUnit (ForkJoin) не обязан запускать их в порядке выдачи, так что это лишь подсказка,
+ * а не расписание LPT: долгие сценарии обычно стартуют раньше, но гарантии нет. Каждый сценарий работает
+ * в своей области данных ({@link DataScope}), поэтому сценарии оплаты и кредита выполняются одновременно.</p>
+ */
+public class ScenarioEngine {
+    private final ScenarioDriver driver;
+    private final DurationHistory history;
+
+    public ScenarioEngine(ScenarioDriver driver, DurationHistory history) {
+        this.driver = driver;
+        this.history = history;
+    }
+
+    /**
+     * Динамические тесты для всех сценариев, поддерживаемых драйвером, от долгих к коротким
+     */
+    public Stream<DynamicTest> plan(List<Scenario> scenarios) {
+        List<Run> runs = new ArrayList<>();
+        for (Scenario scenario : scenarios) {
+            if (!driver.supports(scenario)) {
+                continue;
+            }
+            for (PurchaseMode mode : PurchaseMode.values()) {
+                runs.add(new Run(scenario, mode));
+            }
+        }
+        // Сортировка устойчивая: при равной истории сохраняется порядок таблицы
+        runs.sort(Comparator.comparingLong((Run run) -> history.expectedMillis(run.key)).reversed());
+        return runs.stream().map(run -> DynamicTest.dynamicTest(
+                run.mode.getTitle() + ": " + run.scenario.getTitle(), () -> execute(run)));
+    }
+
+    private void execute(Run run) {
+        Allure.feature(run.mode.getTitle());
+        Allure.story(run.scenario.getStory());
+        long start = System.nanoTime();
+        DataScope.begin();
+        try {
+            driver.run(run.scenario, run.mode);
+        } finally {
+            try {
+                // Неисправности сети, внесённые сценарием, не должны переходить к следующим сценариям
+                if (FaultProxies.isEnabled()) {
+                    FaultProxies.resetFaults();
+                }
+                DBHelper.cleanDatabase();
+            } finally {
+                history.record(run.key, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            }
+        }
+    }
+
+    private class Run {
+        final Scenario scenario;
+        final PurchaseMode mode;
+        final String key;
+
+        Run(Scenario scenario, PurchaseMode mode) {
+            this.scenario = scenario;
+            this.mode = mode;
+            this.key = driver.getName() + "." + scenario.getId() + "." + mode.name().toLowerCase();
+        }
+    }
+}
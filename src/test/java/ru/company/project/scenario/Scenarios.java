@@ -0,0 +1,62 @@
+package ru.company.project.scenario;
+
+import java.util.List;
+
+import static ru.company.project.data.CardTestData.*;
+import static ru.company.project.scenario.DbEffect.*;
+import static ru.company.project.scenario.UiOutcome.*;
+
+/**
+ * Таблица сценариев формы карты. Каждая строка выполняется и для оплаты, и для кредита.
+ */
+public class Scenarios {
+    private static final String MAIN = "Основные сценарии";
+    private static final String CARD = "Валидация номера карты";
+    private static final String MONTH = "Валидация месяца";
+    private static final String YEAR = "Валидация года";
+    private static final String HOLDER = "Валидация владельца карты";
+    private static final String CVC = "Валидация CVC";
+
+    public static final List<Scenario> ALL = List.of(
+            new Scenario("approved-card", "APPROVED-карта: операция одобрена", MAIN,
+                    APPROVED_CARD, CURRENT_MONTH + 2, CURRENT_YEAR + 3, VALID_HOLDER, VALID_CVC, SUCCESS_NOTIFICATION, APPROVED),
+            new Scenario("declined-card", "DECLINED-карта: операция отклонена", MAIN,
+                    DECLINED_CARD, CURRENT_MONTH + 3, CURRENT_YEAR + 1, VALID_HOLDER, VALID_CVC, REJECTION_NOTIFICATION, DECLINED),
+            new Scenario("unknown-card", "Несуществующая карта: операция отклонена", CARD,
+                    INVALID_CARD, CURRENT_MONTH + 1, CURRENT_YEAR + 4, VALID_HOLDER, VALID_CVC, REJECTION_NOTIFICATION, NO_ORDER),
+            new Scenario("short-card", "Короткий номер карты", CARD,
+                    SHORT_CARD, CURRENT_MONTH, CURRENT_YEAR + 3, VALID_HOLDER, VALID_CVC, INVALID_FORMAT, NO_ORDER),
+            new Scenario("empty-card", "Пустой номер карты", CARD,
+                    EMPTY_CARD, CURRENT_MONTH + 2, CURRENT_YEAR, VALID_HOLDER, VALID_CVC, INVALID_FORMAT, NO_ORDER),
+            new Scenario("past-month", "Прошедший месяц текущего года", MONTH,
+                    APPROVED_CARD, CURRENT_MONTH - 1, CURRENT_YEAR, VALID_HOLDER, VALID_CVC, INVALID_EXPIRATION, NO_ORDER),
+            new Scenario("empty-month", "Пустой месяц", MONTH,
+                    APPROVED_CARD, EMPTY_MONTH, CURRENT_YEAR + 2, VALID_HOLDER, VALID_CVC, INVALID_FORMAT, NO_ORDER),
+            new Scenario("month-13", "Несуществующий месяц (13)", MONTH,
+                    APPROVED_CARD, INVALID_MONTH, CURRENT_YEAR + 1, VALID_HOLDER, VALID_CVC, INVALID_EXPIRATION, NO_ORDER),
+            new Scenario("month-00", "Несуществующий месяц (00)", MONTH,
+                    APPROVED_CARD, MONTH_OF_ZEROS, CURRENT_YEAR + 2, VALID_HOLDER, VALID_CVC, INVALID_EXPIRATION, NO_ORDER),
+            new Scenario("past-year", "Прошедший год", YEAR,
+                    APPROVED_CARD, CURRENT_MONTH, CURRENT_YEAR - 1, VALID_HOLDER, VALID_CVC, EXPIRED_YEAR, NO_ORDER),
+            new Scenario("year-plus-6", "Срок действия больше 5 лет", YEAR,
+                    APPROVED_CARD, CURRENT_MONTH, CURRENT_YEAR + 6, VALID_HOLDER, VALID_CVC, INVALID_EXPIRATION, NO_ORDER),
+            new Scenario("empty-year", "Пустой год", YEAR,
+                    APPROVED_CARD, CURRENT_MONTH, EMPTY_YEAR, VALID_HOLDER, VALID_CVC, INVALID_FORMAT, NO_ORDER),
+            new Scenario("first-name-only", "Владелец без фамилии", HOLDER,
+                    APPROVED_CARD, CURRENT_MONTH, CURRENT_YEAR + 4, FIRST_NAME_HOLDER, VALID_CVC, INVALID_FORMAT, NO_ORDER),
+            new Scenario("cyrillic-holder", "Владелец кириллицей", HOLDER,
+                    APPROVED_CARD, CURRENT_MONTH + 6, CURRENT_YEAR, HOLDER_CYRILLIC, VALID_CVC, INVALID_FORMAT, NO_ORDER),
+            new Scenario("empty-holder", "Пустой владелец", HOLDER,
+                    APPROVED_CARD, CURRENT_MONTH, CURRENT_YEAR, EMPTY_HOLDER, VALID_CVC, FIELD_REQUIRED, NO_ORDER),
+            new Scenario("long-holder", "Владелец длиннее 50 символов", HOLDER,
+                    APPROVED_CARD, CURRENT_MONTH + 7, CURRENT_YEAR + 1, LONG_HOLDER, VALID_CVC, INVALID_FORMAT, NO_ORDER),
+            new Scenario("special-chars-holder", "Спецсимволы во владельце", HOLDER,
+                    APPROVED_CARD, CURRENT_MONTH + 8, CURRENT_YEAR, HOLDER_SPECIAL_CHARS, VALID_CVC, INVALID_FORMAT, NO_ORDER),
+            new Scenario("digits-holder", "Цифры во владельце", HOLDER,
+                    APPROVED_CARD, CURRENT_MONTH + 9, CURRENT_YEAR, HOLDER_NUMBER, VALID_CVC, INVALID_FORMAT, NO_ORDER),
+            new Scenario("short-cvc", "Короткий CVC (2 цифры)", CVC,
+                    APPROVED_CARD, CURRENT_MONTH, CURRENT_YEAR + 3, VALID_HOLDER, CVC_SHORT, INVALID_FORMAT, NO_ORDER),
+            new Scenario("empty-cvc", "Пустой CVC", CVC,
+                    APPROVED_CARD, CURRENT_MONTH + 12, CURRENT_YEAR, VALID_HOLDER, EMPTY_CVC, INVALID_FORMAT, NO_ORDER)
+    );
+}
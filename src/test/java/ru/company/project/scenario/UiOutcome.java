@@ -0,0 +1,46 @@
+package ru.company.project.scenario;
+
+import ru.company.project.pages.CardPage;
+
+import java.util.function.Consumer;
+
+/**
+ * Ожидаемая реакция формы карты на отправку.
+ */
+public enum UiOutcome {
+    /** "Успешно. Операция одобрена Банком." */
+    SUCCESS_NOTIFICATION(CardPage::verifySuccessNotification, true),
+    /** "Ошибка! Банк отказал в проведении операции." */
+    REJECTION_NOTIFICATION(CardPage::verifyRejectionNotification, true),
+    /** "Неверный формат" под полем */
+    INVALID_FORMAT(CardPage::verifyInvalidFormatMessage, false),
+    /** "Неверно указан срок действия карты" */
+    INVALID_EXPIRATION(CardPage::verifyCardExpirationDate, false),
+    /** "Истёк срок действия карты" */
+    EXPIRED_YEAR(CardPage::verifyInvalidYearError, false),
+    /** "Поле обязательно для заполнения" */
+    FIELD_REQUIRED(CardPage::verifyThisFieldIsRequired, false);
+
+    private final Consumer<CardPage> check;
+    private final boolean reachesServer;
+
+    UiOutcome(Consumer<CardPage> check, boolean reachesServer) {
+        this.check = check;
+        this.reachesServer = reachesServer;
+    }
+
+    /**
+     * Проверяет реакцию формы
+     */
+    public void verify(CardPage cardPage) {
+        check.accept(cardPage);
+    }
+
+    /**
+     * true, если форма проходит клиентскую валидацию и отправляется в приложение;
+     * только такие сценарии имеют смысл без браузера
+     */
+    public boolean reachesServer() {
+        return reachesServer;
+    }
+}
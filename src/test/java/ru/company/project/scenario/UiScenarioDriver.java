@@ -0,0 +1,46 @@
+package ru.company.project.scenario;
+
+import com.codeborne.selenide.logevents.SelenideLogger;
+import io.qameta.allure.selenide.AllureSelenide;
+import ru.company.project.api.PurchaseMode;
+import ru.company.project.base.BrowserPool;
+import ru.company.project.base.ShopApp;
+import ru.company.project.pages.CardPage;
+import ru.company.project.pages.MainPage;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+/**
+ * Сценарий в браузере воркера: открыть главную, выбрать способ покупки, заполнить форму,
+ * проверить уведомление и запись в БД.
+ */
+public class UiScenarioDriver implements ScenarioDriver {
+
+    @Override
+    public String getName() {
+        return "ui";
+    }
+
+    @Override
+    public boolean supports(Scenario scenario) {
+        return true;
+    }
+
+    @Override
+    public void run(Scenario scenario, PurchaseMode mode) {
+        if (!SelenideLogger.hasListener("allure")) {
+            SelenideLogger.addListener("allure", new AllureSelenide());
+        }
+        BrowserPool.open(ShopApp.getBaseUrl());
+        MainPage mainPage = new MainPage();
+        mainPage.verifyHeaderVisible();
+        CardPage cardPage = mode == PurchaseMode.PAYMENT ? mainPage.clickBuy() : mainPage.clickBuyOnCredit();
+        cardPage.fillingCardForm(scenario.getCard(), scenario.getMonth(), scenario.getYear(),
+                scenario.getHolder(), scenario.getCvc());
+        cardPage.submit();
+        assertAll(
+                () -> scenario.getUi().verify(cardPage),
+                () -> scenario.getDb().verify(mode)
+        );
+    }
+}
@@ -0,0 +1,85 @@
+package ru.company.project.tests;
+
+import io.qameta.allure.Epic;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import ru.company.project.api.PurchaseMode;
+import ru.company.project.api.ShopApiClient;
+import ru.company.project.data.CardDataGenerator;
+import ru.company.project.data.DBHelper;
+import ru.company.project.data.WorkerDatabase;
+import ru.company.project.gate.EmbeddedGateSimulator;
+import ru.company.project.load.CapacityFinder;
+import ru.company.project.load.CapacityReport;
+
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static io.qameta.allure.Allure.addAttachment;
+import static io.qameta.allure.Allure.step;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static ru.company.project.data.CardTestData.APPROVED_CARD;
+
+
+/**
+ * Поиск ёмкости приложения по полному пути покупки (REST API → симулятор банка → БД).
+ * Запускается отдельно: {@code ./gradlew capacityTest -Ddb.url=...} при запущенном runMySQL/runPostgreSQL.
+ *
+ * <p>Отчёт каждого прогона сохраняется в {@code capacity.dir} (по умолчанию build/reports/capacity)
+ * как {@code <СУБД>-<способ покупки>.json}; после прогонов на обеих СУБД на одном стенде
+ * сводная таблица {@code summary.txt} сравнивает их ёмкость.</p>
+ *
+ * <p>Параметры ступеней — свойства capacity.* ({@link CapacityFinder#fromSystemProperties()}),
+ * {@code capacity.minRps} — ожидаемая минимальная ёмкость (по умолчанию проверка отключена).</p>
+ */
+@Tag("capacity")
+@Epic("Ёмкость приложения")
+public class AppCapacityTest {
+    private static final Path REPORT_DIR = Paths.get(System.getProperty("capacity.dir", "build/reports/capacity"));
+    private static final double MIN_RPS = Double.parseDouble(System.getProperty("capacity.minRps", "0"));
+
+    @BeforeAll
+    static void setUpAll() {
+        EmbeddedGateSimulator.ensureStarted();
+        DBHelper.cleanDatabase();
+    }
+
+    @AfterEach
+    void cleanBase() {
+        DBHelper.cleanDatabase();
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @EnumSource(PurchaseMode.class)
+    @DisplayName("Максимальная устойчивая частота покупок")
+    @Story("Ступенчатая нагрузка до колена")
+    void shouldFindMaxSustainedPurchaseRate(PurchaseMode mode) {
+        // Запрос неизменяем: один экземпляр отправляется на каждой ступени без повторной сериализации
+        CardDataGenerator data = CardDataGenerator.current();
+        HttpRequest request = ShopApiClient.purchaseRequest(mode, APPROVED_CARD,
+                CardDataGenerator.month(1), CardDataGenerator.year(1), data.holder(), data.cvc("###"));
+        String run = WorkerDatabase.getBackend() + "-" + mode;
+
+        CapacityReport report = step("Ступенчатая нагрузка: " + mode.getTitle(), () ->
+                CapacityFinder.fromSystemProperties()
+                        .search(run, () -> request, status -> status == 200, DBHelper::getTotalOrderCount));
+        report.attachToAllure();
+        report.writeTo(REPORT_DIR.resolve(run + ".json"));
+        step("Сравнение с прогонами на других СУБД", () -> {
+            String comparison = CapacityReport.compare(REPORT_DIR);
+            Files.writeString(REPORT_DIR.resolve("summary.txt"), comparison);
+            addAttachment("Сравнение ёмкости по СУБД", "text/plain", comparison);
+        });
+
+        step("Проверка найденной ёмкости", () -> assertTrue(report.getMaxSustainedThroughput() >= MIN_RPS,
+                String.format("Ёмкость должна быть не менее %.0f rps, фактически: %.1f rps (%s)",
+                        MIN_RPS, report.getMaxSustainedThroughput(), report.getStopReason())));
+    }
+}
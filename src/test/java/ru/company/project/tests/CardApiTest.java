@@ -0,0 +1,91 @@
+package ru.company.project.tests;
+
+import io.qameta.allure.Epic;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import ru.company.project.api.ApiCardForm;
+import ru.company.project.api.PurchaseMode;
+import ru.company.project.data.DBHelper;
+import ru.company.project.data.DataScope;
+import ru.company.project.data.DbSnapshot;
+import ru.company.project.gate.EmbeddedGateSimulator;
+
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static ru.company.project.data.CardTestData.*;
+
+
+/**
+ * Серверная часть матрицы PaymentTest/CreditTest без браузера: форма отправляется в REST API
+ * приложения, результат проверяется в БД. Проверки отрисовки остаются в UI-тестах.
+ */
+@Epic("Покупка тура через API приложения")
+public class CardApiTest {
+    private ApiCardForm cardForm;
+
+    @BeforeAll
+    static void setUpAll() {
+        EmbeddedGateSimulator.ensureStarted();
+        DBHelper.prepareDatabase();
+    }
+
+    @BeforeEach
+    void setUpTest() {
+        DataScope.begin();
+    }
+
+    @AfterEach
+    void cleanBase() {
+        DBHelper.cleanDatabase();
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @EnumSource(PurchaseMode.class)
+    @DisplayName("APPROVED-карта: покупка одобрена")
+    @Story("Основные сценарии")
+    void shouldApproveWithApprovedCard(PurchaseMode mode) {
+        cardForm = new ApiCardForm(mode);
+        cardForm.fillingCardForm(APPROVED_CARD, CURRENT_MONTH + 2, CURRENT_YEAR + 3, VALID_HOLDER, VALID_CVC);
+        cardForm.submit();
+        DbSnapshot snapshot = DBHelper.getSnapshot();
+        assertAll(
+                () -> assertEquals(200, cardForm.getLastStatusCode(), "Приложение должно принять покупку"),
+                () -> assertEquals(STATUS_APPROVED, statusOf(mode, snapshot)),
+                () -> assertEquals(1, snapshot.getOrderCount()),
+                () -> assertEquals(0, snapshot.getUnlinkedOrders(), "Заказ должен ссылаться на операцию")
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @EnumSource(PurchaseMode.class)
+    @DisplayName("DECLINED-карта: покупка отклонена")
+    @Story("Основные сценарии")
+    void shouldDeclineWithDeclinedCard(PurchaseMode mode) {
+        cardForm = new ApiCardForm(mode);
+        cardForm.fillingCardForm(DECLINED_CARD, CURRENT_MONTH + 3, CURRENT_YEAR + 1, VALID_HOLDER, VALID_CVC);
+        cardForm.submit();
+        assertEquals(STATUS_DECLINED, statusOf(mode, DBHelper.getSnapshot()));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @EnumSource(PurchaseMode.class)
+    @DisplayName("Несуществующая карта: заказ не создаётся")
+    @Story("Валидация номера карты")
+    void shouldNotCreateOrderForNonExistentCard(PurchaseMode mode) throws SQLException {
+        cardForm = new ApiCardForm(mode);
+        cardForm.fillingCardForm(INVALID_CARD, CURRENT_MONTH + 1, CURRENT_YEAR + 4, VALID_HOLDER, VALID_CVC);
+        cardForm.submit();
+        assertEquals(0, DBHelper.getOrderCount());
+    }
+
+    private static String statusOf(PurchaseMode mode, DbSnapshot snapshot) {
+        return mode == PurchaseMode.PAYMENT ? snapshot.getPaymentStatus() : snapshot.getCreditStatus();
+    }
+}
@@ -0,0 +1,139 @@
+package ru.company.project.tests;
+
+import io.qameta.allure.Epic;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import ru.company.project.api.PurchaseMode;
+import ru.company.project.api.ShopApiClient;
+import ru.company.project.data.CardDataGenerator;
+import ru.company.project.data.DBHelper;
+import ru.company.project.data.OrderReconciler;
+import ru.company.project.data.OrderReconciliation;
+import ru.company.project.data.StatusAwaiter;
+import ru.company.project.gate.EmbeddedGateSimulator;
+import ru.company.project.load.BurstResult;
+import ru.company.project.load.BurstSubmitter;
+
+import java.net.http.HttpRequest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static io.qameta.allure.Allure.addAttachment;
+import static io.qameta.allure.Allure.step;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static ru.company.project.data.CardTestData.*;
+
+
+/**
+ * Согласованность БД при одновременных покупках: пачка оплат и кредитов с APPROVED-, DECLINED- и
+ * несуществующими картами отправляется в REST API разом, затем все заказы сверяются с платежами
+ * и заявками ({@link OrderReconciler}). Запускается отдельно: {@code ./gradlew stressTest -Ddb.url=...}
+ * при запущенном runMySQL/runPostgreSQL.
+ *
+ * <p>Приложение может записывать покупку после ответа, поэтому сверка начинается, когда вставки в таблицы
+ * затихли на {@code stress.quietMs} (1000 мс, {@link StatusAwaiter#awaitQuiescence}).</p>
+ *
+ * <p>Параметры: {@code stress.purchases} (2000) — размер пачки, {@code stress.inFlight} (500) —
+ * одновременно ожидающих ответа запросов. Порядок покупок перемешивается с сидом {@code data.seed}.</p>
+ */
+@Tag("stress")
+@Epic("Согласованность данных при одновременных покупках")
+public class ConcurrentPurchaseTest {
+    private static final int PURCHASES = Integer.getInteger("stress.purchases", 2000);
+    private static final int IN_FLIGHT = Integer.getInteger("stress.inFlight", 500);
+    /** Сколько таблицы должны не меняться, чтобы считать запись законченной */
+    private static final long QUIET_MS = Long.getLong("stress.quietMs", 1_000);
+    /** Доли карт в пачке: из каждых десяти покупок 6 одобренных, 3 отклонённых, 1 с несуществующей картой */
+    private static final String[] CARD_MIX = {
+            APPROVED_CARD, APPROVED_CARD, APPROVED_CARD, APPROVED_CARD, APPROVED_CARD, APPROVED_CARD,
+            DECLINED_CARD, DECLINED_CARD, DECLINED_CARD, INVALID_CARD
+    };
+
+    @BeforeAll
+    static void setUpAll() {
+        EmbeddedGateSimulator.ensureStarted();
+        DBHelper.cleanDatabase();
+    }
+
+    @AfterEach
+    void cleanBase() {
+        DBHelper.cleanDatabase();
+    }
+
+    @Test
+    @DisplayName("Одновременные покупки: каждая принятая операция записана ровно с одним заказом")
+    @Story("Сверка заказов с платежами и кредитными заявками")
+    void shouldKeepOrdersConsistentUnderConcurrentPurchases() {
+        List<Map.Entry<String, HttpRequest>> requests = step("Подготовка " + PURCHASES + " покупок",
+                ConcurrentPurchaseTest::purchases);
+
+        BurstResult burst = step("Одновременная отправка, в полёте до " + IN_FLIGHT,
+                () -> new BurstSubmitter(IN_FLIGHT).submit(requests));
+        addAttachment("Ответы приложения", "text/plain", burst.summary());
+        boolean settled = step("Ожидание, пока приложение допишет принятые покупки",
+                () -> StatusAwaiter.awaitQuiescence(QUIET_MS));
+
+        OrderReconciliation reconciliation = step("Сверка заказов с платежами и заявками", OrderReconciler::reconcile);
+        addAttachment("Сверка", "text/plain", reconciliation.summary());
+
+        long approvedPayments = burst.count(category(PurchaseMode.PAYMENT, APPROVED_CARD), 200);
+        long declinedPayments = burst.count(category(PurchaseMode.PAYMENT, DECLINED_CARD), 200);
+        long approvedCredits = burst.count(category(PurchaseMode.CREDIT, APPROVED_CARD), 200);
+        long declinedCredits = burst.count(category(PurchaseMode.CREDIT, DECLINED_CARD), 200);
+        step("Проверка потерянных записей, дубликатов и висячих заказов", () -> assertAll(
+                () -> assertEquals(0, burst.getNoResponse(), "Приложение должно ответить на все запросы"),
+                () -> assertTrue(settled, "Запись в БД должна затихнуть до сверки"),
+                () -> assertEquals(approvedPayments, reconciliation.getPaymentCount(STATUS_APPROVED),
+                        "Одобренные платежи: принятые запросы и строки payment_entity"),
+                () -> assertEquals(declinedPayments, reconciliation.getPaymentCount(STATUS_DECLINED),
+                        "Отклонённые платежи: принятые запросы и строки payment_entity"),
+                () -> assertEquals(approvedCredits, reconciliation.getCreditCount(STATUS_APPROVED),
+                        "Одобренные кредиты: принятые запросы и строки credit_request_entity"),
+                () -> assertEquals(declinedCredits, reconciliation.getCreditCount(STATUS_DECLINED),
+                        "Отклонённые кредиты: принятые запросы и строки credit_request_entity"),
+                () -> assertEquals(approvedPayments + declinedPayments,
+                        reconciliation.getPaymentStatuses().values().stream().mapToLong(Long::longValue).sum(),
+                        "Покупки с несуществующей картой не должны создавать платежи"),
+                () -> assertEquals(approvedCredits + declinedCredits,
+                        reconciliation.getCreditStatuses().values().stream().mapToLong(Long::longValue).sum(),
+                        "Покупки с несуществующей картой не должны создавать кредитные заявки"),
+                () -> assertEquals(0, reconciliation.getPaymentsWithoutOrder(), "Платежи без заказа"),
+                () -> assertEquals(0, reconciliation.getCreditsWithoutOrder(), "Кредитные заявки без заказа"),
+                () -> assertEquals(0, reconciliation.getDuplicateOrders(), "Дублирующиеся заказы"),
+                () -> assertEquals(0, reconciliation.getOrphanOrders(), "Заказы без платежа и заявки")
+        ));
+    }
+
+    /**
+     * Пачка покупок: способы покупки чередуются, карты — по {@link #CARD_MIX}, порядок перемешан
+     */
+    private static List<Map.Entry<String, HttpRequest>> purchases() {
+        CardDataGenerator data = CardDataGenerator.current();
+        String month = CardDataGenerator.month(1);
+        String year = CardDataGenerator.year(1);
+        List<Map.Entry<String, HttpRequest>> requests = new ArrayList<>(PURCHASES);
+        PurchaseMode[] modes = PurchaseMode.values();
+        for (int i = 0; i < PURCHASES; i++) {
+            PurchaseMode mode = modes[i % modes.length];
+            String card = CARD_MIX[(i / modes.length) % CARD_MIX.length];
+            requests.add(Map.entry(category(mode, card),
+                    ShopApiClient.purchaseRequest(mode, card, month, year, data.holder(), data.cvc("###"))));
+        }
+        Collections.shuffle(requests, new Random(CardDataGenerator.seed()));
+        return requests;
+    }
+
+    private static String category(PurchaseMode mode, String card) {
+        String kind = APPROVED_CARD.equals(card) ? STATUS_APPROVED : DECLINED_CARD.equals(card) ? STATUS_DECLINED : "INVALID";
+        return mode + "/" + kind;
+    }
+}
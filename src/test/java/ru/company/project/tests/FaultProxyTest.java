@@ -0,0 +1,227 @@
+package ru.company.project.tests;
+
+import io.qameta.allure.Epic;
+import io.qameta.allure.Story;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.company.project.gate.LatencyDistribution;
+import ru.company.project.proxy.FaultProxy;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static io.qameta.allure.Allure.step;
+import static org.junit.jupiter.api.Assertions.*;
+
+
+/**
+ * Прокси неисправностей на loopback-интерфейсе перед эхо-сервером: данные должны возвращаться
+ * без искажений, а задержка, ограничение скорости, остановка и сброс — действовать как настроено.
+ */
+@Epic("Прокси неисправностей сети")
+public class FaultProxyTest {
+    private static final int ECHO_TIMEOUT_MS = 10_000;
+    private static ServerSocket echoServer;
+    private static ExecutorService echoWorkers;
+    private FaultProxy proxy;
+
+    @BeforeAll
+    @SneakyThrows
+    static void startEcho() {
+        echoServer = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        echoWorkers = Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, "echo-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+        echoWorkers.execute(() -> {
+            while (!echoServer.isClosed()) {
+                try {
+                    Socket socket = echoServer.accept();
+                    echoWorkers.execute(() -> echo(socket));
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        });
+    }
+
+    @AfterAll
+    @SneakyThrows
+    static void stopEcho() {
+        echoServer.close();
+        echoWorkers.shutdownNow();
+    }
+
+    @BeforeEach
+    @SneakyThrows
+    void startProxy() {
+        proxy = new FaultProxy("echo", 0,
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), echoServer.getLocalPort()));
+    }
+
+    @AfterEach
+    void stopProxy() {
+        proxy.close();
+    }
+
+    @Test
+    @DisplayName("Без неисправностей данные возвращаются без искажений")
+    @Story("Пересылка")
+    void shouldForwardDataUnchanged() {
+        byte[] data = randomBytes(4 * 1024 * 1024);
+
+        byte[] echoed = step("Передача 4 МБ через прокси и обратно", () -> roundTrip(data));
+
+        step("Проверка данных и счётчиков прокси", () -> {
+            assertArrayEquals(data, echoed, "Эхо должно совпадать с отправленными данными");
+            assertEquals(data.length, proxy.getUpstreamBytes(), "Все байты должны дойти до цели");
+            assertEquals(data.length, proxy.getDownstreamBytes(), "Все байты должны вернуться клиенту");
+        });
+    }
+
+    @Test
+    @DisplayName("Задержка добавляется в обоих направлениях")
+    @Story("Задержка")
+    void shouldDelayBothDirections() {
+        proxy.faults().latency(LatencyDistribution.fixed(100));
+
+        long millis = step("Обмен одним байтом с задержкой 100 мс", () -> timed(() -> roundTrip(new byte[]{42})));
+
+        step("Проверка времени обмена", () -> {
+            assertTrue(millis >= 200, "Задержка туда и обратно должна быть не меньше 200 мс, было " + millis);
+            assertTrue(millis < 1_000, "Задержка не должна накапливаться, было " + millis);
+        });
+    }
+
+    @Test
+    @DisplayName("Ограничение пропускной способности соблюдается")
+    @Story("Пропускная способность")
+    void shouldCapBandwidth() {
+        proxy.faults().bandwidth(2_000_000);
+        byte[] data = randomBytes(1_000_000);
+
+        long millis = step("Передача 1 МБ при ограничении 2 МБ/с", () -> timed(() -> roundTrip(data)));
+
+        step("Проверка времени передачи", () -> {
+            assertTrue(millis >= 400, "1 МБ при 2 МБ/с передаётся не быстрее 0,5 с, было " + millis);
+            assertTrue(millis < 2_000, "Ограничение не должно замедлять сильнее заданного, было " + millis);
+        });
+    }
+
+    @Test
+    @DisplayName("Передача без ограничения не замедляет передачу после его включения")
+    @Story("Пропускная способность")
+    void shouldNotCarryTrafficIntoBandwidthCap() {
+        step("Передача 20 МБ без ограничения", () -> roundTrip(randomBytes(20 * 1024 * 1024)));
+        proxy.faults().bandwidth(1_000_000);
+
+        long millis = step("Обмен 10 КБ при ограничении 1 МБ/с", () -> timed(() -> roundTrip(randomBytes(10 * 1024))));
+
+        step("Проверка времени обмена", () ->
+                assertTrue(millis < 1_000, "Переданное до ограничения не должно учитываться, было " + millis));
+    }
+
+    @Test
+    @DisplayName("Остановка передачи держит данные до возобновления")
+    @Story("Остановка передачи")
+    @SneakyThrows
+    void shouldHoldDataWhileStalled() {
+        try (Socket socket = connect()) {
+            proxy.faults().stall();
+            socket.getOutputStream().write(7);
+            socket.setSoTimeout(300);
+
+            step("Ответа нет, пока передача остановлена", () ->
+                    assertThrows(SocketTimeoutException.class, () -> socket.getInputStream().read()));
+
+            proxy.faults().resume();
+            socket.setSoTimeout(ECHO_TIMEOUT_MS);
+            int echoed = socket.getInputStream().read();
+            step("После возобновления данные доходят", () -> assertEquals(7, echoed));
+        }
+    }
+
+    @Test
+    @DisplayName("Сброс соединений обрывает их сбросом (RST)")
+    @Story("Сброс соединений")
+    @SneakyThrows
+    void shouldResetOpenConnections() {
+        try (Socket socket = connect()) {
+            socket.getOutputStream().write(1);
+            assertEquals(1, socket.getInputStream().read(), "Соединение должно работать до сброса");
+
+            proxy.resetConnections();
+
+            step("Клиент получает сброс соединения", () ->
+                    assertThrows(SocketException.class, () -> socket.getInputStream().read()));
+            assertEquals(1, proxy.getResetConnections(), "Должно быть сброшено одно соединение");
+        }
+    }
+
+    /**
+     * Отправляет данные из отдельного потока (иначе эхо упрётся в буферы TCP) и читает ответ до EOF
+     */
+    @SneakyThrows
+    private byte[] roundTrip(byte[] data) {
+        try (Socket socket = connect()) {
+            Thread writer = new Thread(() -> {
+                try {
+                    socket.getOutputStream().write(data);
+                    socket.shutdownOutput();
+                } catch (IOException ignored) {
+                    // Ошибку увидит читающий поток
+                }
+            }, "echo-client");
+            writer.start();
+            byte[] echoed = socket.getInputStream().readAllBytes();
+            writer.join();
+            return echoed;
+        }
+    }
+
+    private Socket connect() throws IOException {
+        Socket socket = new Socket(InetAddress.getLoopbackAddress(), proxy.getPort());
+        socket.setSoTimeout(ECHO_TIMEOUT_MS);
+        return socket;
+    }
+
+    private static long timed(Runnable action) {
+        long start = System.nanoTime();
+        action.run();
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] data = new byte[size];
+        SplittableRandom random = new SplittableRandom(size);
+        for (int i = 0; i < size; i++) {
+            data[i] = (byte) random.nextInt(256);
+        }
+        return data;
+    }
+
+    private static void echo(Socket socket) {
+        try (Socket closing = socket; InputStream in = closing.getInputStream()) {
+            in.transferTo(closing.getOutputStream());
+            closing.shutdownOutput();
+        } catch (IOException ignored) {
+            // Клиент или прокси оборвали соединение
+        }
+    }
+}
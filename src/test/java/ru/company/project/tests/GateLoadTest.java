@@ -0,0 +1,60 @@
+package ru.company.project.tests;
+
+import io.qameta.allure.Epic;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import ru.company.project.gate.EmbeddedGateSimulator;
+import ru.company.project.load.LoadGenerator;
+import ru.company.project.load.LoadResult;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+
+import static io.qameta.allure.Allure.step;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Нагрузочный прогон симулятора банка. Запускается отдельно: {@code ./gradlew loadTest}.
+ * Параметры: load.rate (запросов в секунду), load.durationSec, load.warmUpSec, load.p99Ms.
+ */
+@Tag("load")
+@Epic("Нагрузочное тестирование симулятора банковских сервисов")
+public class GateLoadTest {
+    private static final String GATE_URL = EmbeddedGateSimulator.ensureStarted();
+    private static final String APPROVED_CARD_API = "{\"number\":\"4444 4444 4444 4441\"}";
+    private static final double RATE = Double.parseDouble(System.getProperty("load.rate", "50"));
+    private static final long DURATION_SEC = Long.getLong("load.durationSec", 30);
+    private static final long WARM_UP_SEC = Long.getLong("load.warmUpSec", 5);
+    private static final double P99_BUDGET_MS = Double.parseDouble(System.getProperty("load.p99Ms", "600"));
+
+    @ParameterizedTest(name = "Нагрузка на {0}")
+    @ValueSource(strings = {"/payment", "/credit"})
+    @DisplayName("Задержки симулятора под постоянной нагрузкой")
+    @Story("APPROVED-карта")
+    void shouldKeepLatencyUnderConstantRate(String path) {
+        LoadGenerator generator = new LoadGenerator(RATE, Duration.ofSeconds(DURATION_SEC),
+                Duration.ofSeconds(WARM_UP_SEC), 1024);
+
+        LoadResult result = step("Подача нагрузки " + RATE + " rps на " + path, () ->
+                generator.run(path, () -> HttpRequest.newBuilder(URI.create(GATE_URL + path))
+                        .timeout(Duration.ofSeconds(10))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(APPROVED_CARD_API))
+                        .build(), status -> status == 200)
+        );
+        result.attachToAllure();
+
+        step("Проверка ошибок и перцентилей задержки", () -> assertAll(
+                () -> assertEquals(0, result.getFailed(), "Все запросы должны завершиться успешно"),
+                () -> assertTrue(result.getPercentileMillis(99) < P99_BUDGET_MS, String.format(
+                        "p99 должен быть менее %.0f мс, фактически: %.2f мс", P99_BUDGET_MS, result.getPercentileMillis(99)))
+        ));
+    }
+}
@@ -0,0 +1,124 @@
+package ru.company.project.tests;
+
+import io.qameta.allure.Epic;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import ru.company.project.data.DBHelper;
+import ru.company.project.data.FixtureSeeder;
+import ru.company.project.data.PlanBaseline;
+import ru.company.project.data.QueryCatalog;
+import ru.company.project.data.QueryPlan;
+import ru.company.project.data.QueryPlanInspector;
+import ru.company.project.data.TrackedQuery;
+import ru.company.project.data.WorkerDatabase;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import static io.qameta.allure.Allure.addAttachment;
+import static io.qameta.allure.Allure.step;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Регрессия планов и времени запросов к таблицам приложения на текущей СУБД (db.url).
+ * Запускается отдельно: {@code ./gradlew planTest -Ddb.url=...}, лучше на наполненной БД
+ * ({@code -Dseed.rows=10000000} наполняет её перед проверкой, см. {@link FixtureSeeder}).
+ *
+ * <p>Запрос не проходит, если читает полным просмотром таблицу, не разрешённую эталоном
+ * ({@link PlanBaseline}), или выполняется дольше эталона более чем в {@code plans.tolerance} (2) раза.
+ * Время запроса без эталона не проверяется: его замер дописывается в эталон, и проверка начинается со
+ * следующего прогона. Текущие замеры всегда записываются в build/reports/query-plans/&lt;СУБД&gt;.properties,
+ * при {@code plans.updateBaseline=true} — и в эталон целиком.</p>
+ */
+@Tag("plans")
+@Epic("Планы запросов к таблицам приложения")
+public class QueryPlanTest {
+    private static final double TOLERANCE = Double.parseDouble(System.getProperty("plans.tolerance", "2"));
+    /** Абсолютный запас к эталону: доли миллисекунды не должны превращаться в кратный рост */
+    private static final double NOISE_MS = 1;
+    private static final int RUNS = Integer.getInteger("plans.runs", 5);
+    private static final Map<String, QueryPlan> measured = new ConcurrentHashMap<>();
+    /** Замеры запросов, у которых нет эталонного времени */
+    private static final Map<String, QueryPlan> unbaselined = new ConcurrentHashMap<>();
+
+    private static String backend;
+    private static PlanBaseline baseline;
+
+    @BeforeAll
+    static void setUpAll() {
+        backend = WorkerDatabase.getBackend();
+        baseline = PlanBaseline.load(backend);
+        long rows = Long.getLong("seed.rows", 0);
+        if (rows > 0) {
+            step("Наполнение БД: " + rows + " покупок", () ->
+                    addAttachment("Наполнение БД", "text/plain", FixtureSeeder.fromSystemProperties().seed(rows).summary()));
+        } else {
+            DBHelper.prepareDatabase();
+        }
+    }
+
+    @AfterAll
+    static void writeMeasurements() {
+        if (measured.isEmpty()) {
+            return;
+        }
+        PlanBaseline.write(Paths.get("build", "reports", "query-plans", backend + ".properties"), backend,
+                measured.values());
+        Path source = Paths.get("src", "test", "resources", "query-plans", backend + ".properties");
+        if (Boolean.getBoolean("plans.updateBaseline")) {
+            PlanBaseline.write(source, backend, measured.values());
+        } else if (!unbaselined.isEmpty()) {
+            PlanBaseline.appendMillis(source, unbaselined.values());
+        }
+    }
+
+    static Stream<Arguments> queries() {
+        return QueryCatalog.all().stream().map(query -> Arguments.of(query.getName(), query));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("queries")
+    @DisplayName("Запрос использует индексы и укладывается во время")
+    @Story("EXPLAIN и время выполнения")
+    void shouldKeepPlanAndLatency(String name, TrackedQuery query) {
+        QueryPlan plan = step("EXPLAIN " + name, () -> QueryPlanInspector.inspect(query, RUNS));
+        measured.put(name, plan);
+        addAttachment("План " + name, "application/json", plan.getPlan());
+        addAttachment("Итог " + name, "text/plain", query.getSql() + "\n\n" + plan.summary());
+
+        Set<String> unexpectedScans = new TreeSet<>(plan.getFullScans());
+        unexpectedScans.removeAll(baseline.allowedFullScans(name));
+        OptionalDouble reference = baseline.millis(name);
+        if (reference.isEmpty()) {
+            unbaselined.put(name, plan);
+            addAttachment("Эталон времени " + name, "text/plain", String.format(Locale.ROOT,
+                    "Эталона нет: замер %.3f мс дописан в эталон, время проверяется со следующего прогона",
+                    plan.getExecutionMillis()));
+        }
+        double limit = reference.isPresent()
+                ? Math.max(reference.getAsDouble() * TOLERANCE, reference.getAsDouble() + NOISE_MS)
+                : Double.POSITIVE_INFINITY;
+        step("Проверка плана и времени на " + backend, () -> assertAll(
+                () -> assertTrue(unexpectedScans.isEmpty(), String.format(
+                        "Полный просмотр таблиц %s — нет подходящего индекса", unexpectedScans)),
+                () -> assertTrue(plan.getExecutionMillis() <= limit, String.format(
+                        "Время выполнения должно быть не более %.3f мс, фактически: %.3f мс",
+                        limit, plan.getExecutionMillis()))
+        ));
+    }
+}
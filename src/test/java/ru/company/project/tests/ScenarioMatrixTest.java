@@ -0,0 +1,51 @@
+package ru.company.project.tests;
+
+import com.codeborne.selenide.logevents.SelenideLogger;
+import io.qameta.allure.Epic;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestFactory;
+import ru.company.project.base.BrowserPool;
+import ru.company.project.data.DBHelper;
+import ru.company.project.gate.EmbeddedGateSimulator;
+import ru.company.project.scenario.DurationHistory;
+import ru.company.project.scenario.ScenarioDriver;
+import ru.company.project.scenario.ScenarioEngine;
+import ru.company.project.scenario.Scenarios;
+
+import java.util.stream.Stream;
+
+
+/**
+ * Общая таблица {@link Scenarios} для обоих способов покупки одним набором: сценарии оплаты и кредита
+ * перемешаны и выдаются по истории длительностей. PaymentTest/CreditTest остаются отдельными наборами.
+ * Запускается отдельно: {@code ./gradlew scenarioMatrix -Dparallel=true}, драйвер — {@code -Dscenario.driver=ui|api}.
+ */
+@Tag("matrix")
+@Epic("Покупка тура: таблица сценариев")
+public class ScenarioMatrixTest {
+    private static DurationHistory history;
+
+    @BeforeAll
+    static void setUpAll() {
+        BrowserPool.configure();
+        EmbeddedGateSimulator.ensureStarted();
+        DBHelper.prepareDatabase();
+        history = DurationHistory.fromSystemProperties();
+    }
+
+    @AfterAll
+    static void tearDownAll() {
+        SelenideLogger.removeListener("allure");
+        history.save();
+    }
+
+    @TestFactory
+    @DisplayName("Форма карты: оплата и кредит")
+    Stream<DynamicTest> purchaseMatrix() {
+        return new ScenarioEngine(ScenarioDriver.fromSystemProperties(), history).plan(Scenarios.ALL);
+    }
+}
@@ -0,0 +1,144 @@
+package ru.company.project.tests;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Story;
+import lombok.SneakyThrows;
+import org.apache.commons.dbutils.QueryRunner;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.company.project.data.DBHelper;
+import ru.company.project.data.DataScope;
+import ru.company.project.data.StatusAwaiter;
+import ru.company.project.gate.EmbeddedGateSimulator;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static io.qameta.allure.Allure.step;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static ru.company.project.data.CardTestData.APPROVED_CARD;
+import static ru.company.project.data.CardTestData.DECLINED_CARD;
+import static ru.company.project.data.CardTestData.STATUS_APPROVED;
+import static ru.company.project.data.CardTestData.STATUS_DECLINED;
+
+
+/**
+ * Ожидание статуса, когда приложение записывает строку уже после ответа на отправку формы.
+ *
+ * <p>Тест играет роль приложения: обращается к симулятору банка в окне отправки, "отвечает" (закрывает
+ * окно) и только через {@link #WRITE_DELAY_MS} записывает платёж или заявку с заказом, как асинхронная
+ * запись приложения. В режиме {@code db.isolation=scoped} строки находятся по id операции банка.</p>
+ */
+@Epic("Ожидание асинхронной записи в БД")
+public class StatusAwaiterTest {
+    private static final long WRITE_DELAY_MS = 500;
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final HttpClient client = HttpClient.newHttpClient();
+    private static final QueryRunner runner = new QueryRunner();
+    private static String gateUrl;
+
+    @BeforeAll
+    static void setUpAll() {
+        gateUrl = EmbeddedGateSimulator.ensureStarted();
+        DBHelper.prepareDatabase();
+    }
+
+    @BeforeEach
+    void setUp() {
+        DataScope.begin();
+    }
+
+    @AfterEach
+    void tearDown() {
+        DBHelper.cleanDatabase();
+    }
+
+    @Test
+    @DisplayName("Платёж, записанный после ответа приложения, дожидается проверка статуса")
+    @Story("Запись после ответа")
+    void shouldAwaitPaymentWrittenAfterResponse() {
+        String transactionId = step("Отправка: запрос к банку в окне отправки", () -> submit("/payment", APPROVED_CARD));
+        CompletableFuture<Void> write = writeLater(() -> {
+            insert("INSERT INTO order_entity (id, created, credit_id, payment_id) VALUES (?, ?, ?, ?)",
+                    UUID.randomUUID().toString(), now(), null, transactionId);
+            insert("INSERT INTO payment_entity (id, amount, created, status, transaction_id) VALUES (?, ?, ?, ?, ?)",
+                    UUID.randomUUID().toString(), 4_500_000, now(), STATUS_APPROVED, transactionId);
+        });
+
+        String status = StatusAwaiter.awaitPaymentStatus();
+        write.join();
+
+        step("Проверка статуса и заказа", () -> {
+            assertEquals(STATUS_APPROVED, status, "Статус платежа, записанного после ответа");
+            assertEquals(1, DBHelper.getOrderCount(), "Заказ платежа, записанный после ответа");
+        });
+    }
+
+    @Test
+    @DisplayName("Кредитная заявка, записанная после ответа приложения, дожидается проверка статуса")
+    @Story("Запись после ответа")
+    void shouldAwaitCreditWrittenAfterResponse() {
+        String bankId = step("Отправка: запрос к банку в окне отправки", () -> submit("/credit", DECLINED_CARD));
+        CompletableFuture<Void> write = writeLater(() ->
+                insert("INSERT INTO credit_request_entity (id, bank_id, created, status) VALUES (?, ?, ?, ?)",
+                        UUID.randomUUID().toString(), bankId, now(), STATUS_DECLINED));
+
+        String status = StatusAwaiter.awaitCreditStatus();
+        write.join();
+
+        step("Проверка статуса", () ->
+                assertEquals(STATUS_DECLINED, status, "Статус заявки, записанной после ответа"));
+    }
+
+    /**
+     * Обращается к банку так же, как приложение при отправке формы, и закрывает окно отправки, как ответ
+     * приложения. Строки в БД на этот момент ещё нет.
+     *
+     * @return id операции, выданный банком
+     */
+    @SneakyThrows
+    private static String submit(String route, String cardNumber) {
+        DataScope.openSubmitWindow(cardNumber);
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(gateUrl + route))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            mapper.createObjectNode().put("number", cardNumber).toString()))
+                    .build();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, response.statusCode(), "Ответ симулятора банка");
+            return mapper.readTree(response.body()).path("id").asText();
+        } finally {
+            DataScope.closeSubmitWindow();
+        }
+    }
+
+    /**
+     * Выполняет запись через {@link #WRITE_DELAY_MS} в другом потоке
+     */
+    private static CompletableFuture<Void> writeLater(Runnable write) {
+        return CompletableFuture.runAsync(write, CompletableFuture.delayedExecutor(WRITE_DELAY_MS, TimeUnit.MILLISECONDS));
+    }
+
+    @SneakyThrows
+    private static void insert(String sql, Object... params) {
+        try (Connection conn = DBHelper.getConnection()) {
+            runner.update(conn, sql, params);
+        }
+    }
+
+    private static Timestamp now() {
+        return new Timestamp(System.currentTimeMillis());
+    }
+}